@@ -10,12 +10,31 @@ import com.actify.repository.EventRepository;
 import com.actify.repository.EventRegistrationRepository;
 import com.actify.repository.UserRepository;
 import com.actify.repository.OrganizationRepository;
+import com.actify.repository.OrganizationPointsRollup;
 import com.actify.security.JwtTokenProvider;
+import com.actify.service.CounterReconciliationService;
+import com.actify.service.CounterReconciliationService.ReconciliationReport;
+import com.actify.service.DailyStatsService;
+import com.actify.service.DailyStatsService.DailyPoint;
+import com.actify.service.EntityBatchLoader;
+import com.actify.service.EntityCacheService;
+import com.actify.service.EventChangeNotifier;
+import com.actify.service.PlatformStatsService;
+import com.actify.service.PointDistributionExportService;
+import com.actify.service.PointReviewService;
+import com.actify.service.PointReviewService.ReviewEntry;
+import com.actify.service.PointReviewService.ReviewResult;
+import com.actify.service.PointDistributionExportService.DistributionFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +47,8 @@ import java.util.ArrayList;
 @CrossOrigin(origins = "*")
 public class AdminController {
     
+    private static final int MAX_DISTRIBUTION_PAGE_SIZE = 500;
+    
     @Autowired
     private EventRepository eventRepository;
     
@@ -49,6 +70,30 @@ public class AdminController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+    
+    @Autowired
+    private EventChangeNotifier eventChangeNotifier;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private EntityBatchLoader entityBatchLoader;
+    
+    @Autowired
+    private PlatformStatsService platformStatsService;
+    
+    @Autowired
+    private DailyStatsService dailyStatsService;
+    
+    @Autowired
+    private PointDistributionExportService pointDistributionExportService;
+    
+    @Autowired
+    private PointReviewService pointReviewService;
+    
     // Admin Login
     @PostMapping("/login")
     public ResponseEntity<?> adminLogin(@RequestBody Map<String, String> loginRequest) {
@@ -225,6 +270,7 @@ public class AdminController {
         Event event = eventOpt.get();
         event.setStatus("active");
         eventRepository.save(event);
+        eventChangeNotifier.eventSaved(event);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -246,6 +292,7 @@ public class AdminController {
         Event event = eventOpt.get();
         event.setStatus("rejected");
         eventRepository.save(event);
+        eventChangeNotifier.eventSaved(event);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -274,6 +321,7 @@ public class AdminController {
         Event event = eventOpt.get();
         event.setStatus(newStatus);
         eventRepository.save(event);
+        eventChangeNotifier.eventSaved(event);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -286,39 +334,49 @@ public class AdminController {
     // Get admin stats
     @GetMapping("/stats")
     public ResponseEntity<?> getStats() {
-        List<Event> allEvents = eventRepository.findAll();
-        
-        long pendingCount = allEvents.stream().filter(e -> "pending".equals(e.getStatus())).count();
-        long activeCount = allEvents.stream().filter(e -> "active".equals(e.getStatus())).count();
-        long rejectedCount = allEvents.stream().filter(e -> "rejected".equals(e.getStatus())).count();
-        long completedCount = allEvents.stream().filter(e -> "completed".equals(e.getStatus())).count();
-        
-        // Get point distribution stats
-        List<EventRegistration> allDistributions = eventRegistrationRepository.findAllPointDistributions();
-        int totalPointsDistributed = allDistributions.stream()
-            .mapToInt(r -> r.getPointsAwarded() != null ? r.getPointsAwarded() : 0).sum();
-        long unreviewedDistributions = allDistributions.stream()
-            .filter(r -> !Boolean.TRUE.equals(r.getAdminReviewed())).count();
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalEvents", allEvents.size());
-        stats.put("pendingEvents", pendingCount);
-        stats.put("activeEvents", activeCount);
-        stats.put("rejectedEvents", rejectedCount);
-        stats.put("completedEvents", completedCount);
-        stats.put("totalPointsDistributed", totalPointsDistributed);
-        stats.put("totalDistributions", allDistributions.size());
-        stats.put("unreviewedDistributions", unreviewedDistributions);
-        
-        return ResponseEntity.ok(stats);
+        // Trigger-maintained counters; no table scans
+        return ResponseEntity.ok(platformStatsService.snapshot());
+    }
+    
+    // Platform-wide daily registrations, attendance and points; defaults to the last 365 days
+    @GetMapping("/stats/daily")
+    public ResponseEntity<?> getDailyStats(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            if (!verifyAdminToken(authHeader)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+            }
+            
+            LocalDate toDay = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate fromDay = from != null ? LocalDate.parse(from) : toDay.minusDays(364);
+            List<DailyPoint> series = dailyStatsService.platformSeries(fromDay, toDay);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("from", fromDay);
+            response.put("to", toDay);
+            response.put("days", series);
+            response.put("totals", DailyStatsService.totals(series));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     // ===== Points Distribution Audit Endpoints =====
     
-    // Get all point distributions for admin review
+    // Point distributions for admin review, newest first, one page at a time.
+    // filter=reviewed|unreviewed, orgId, from/to (ISO dates, inclusive) narrow the feed;
+    // pass nextCursor back as "after" for the next page.
     @GetMapping("/points/distributions")
     public ResponseEntity<?> getAllPointDistributions(
             @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Long orgId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size,
             @RequestHeader("Authorization") String authHeader) {
         try {
             // Verify admin token
@@ -326,32 +384,37 @@ public class AdminController {
                 return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
             }
             
-            List<EventRegistration> distributions = eventRegistrationRepository.findAllPointDistributions();
+            DistributionFilter criteria = distributionFilter(filter, orgId, from, to);
+            int pageSize = Math.max(1, Math.min(size, MAX_DISTRIBUTION_PAGE_SIZE));
+            
+            // Cursor is "<pointsAwardedAt>_<id>" of the last row of the previous page
+            LocalDateTime afterAwardedAt = null;
+            Long afterId = null;
+            if (after != null) {
+                String[] parts = after.split("_", 2);
+                afterAwardedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            }
+            
+            // One extra row tells whether another page exists
+            List<EventRegistration> rows = eventRegistrationRepository.findPointDistributionPage(criteria.orgId(),
+                criteria.from(), criteria.to(), criteria.reviewed(), afterAwardedAt, afterId, Limit.of(pageSize + 1));
+            boolean hasMore = rows.size() > pageSize;
+            List<EventRegistration> distributions = hasMore ? rows.subList(0, pageSize) : rows;
             List<Map<String, Object>> distributionList = new ArrayList<>();
             
+            // Everything the rows reference, one query per entity type
+            Map<Long, User> users = entityBatchLoader.users(distributions.stream().map(EventRegistration::getUserId).toList());
+            Map<Long, Event> events = entityBatchLoader.events(distributions.stream().map(EventRegistration::getEventId).toList());
+            Map<Long, Organization> orgs = entityBatchLoader.organizations(distributions.stream().map(EventRegistration::getAwardedByOrgId).toList());
+            
             for (EventRegistration reg : distributions) {
-                // Apply filter if provided
-                if ("unreviewed".equals(filter) && Boolean.TRUE.equals(reg.getAdminReviewed())) {
-                    continue;
-                }
-                if ("reviewed".equals(filter) && !Boolean.TRUE.equals(reg.getAdminReviewed())) {
-                    continue;
-                }
+                User user = users.get(reg.getUserId());
+                Event event = events.get(reg.getEventId());
                 
-                Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                Optional<Event> eventOpt = eventRepository.findById(reg.getEventId());
-                
-                if (userOpt.isPresent() && eventOpt.isPresent()) {
-                    User user = userOpt.get();
-                    Event event = eventOpt.get();
-                    
-                    String orgName = "Unknown";
-                    if (reg.getAwardedByOrgId() != null) {
-                        Optional<Organization> orgOpt = organizationRepository.findById(reg.getAwardedByOrgId());
-                        if (orgOpt.isPresent()) {
-                            orgName = orgOpt.get().getName();
-                        }
-                    }
+                if (user != null && event != null) {
+                    Organization org = orgs.get(reg.getAwardedByOrgId());
+                    String orgName = org != null ? org.getName() : "Unknown";
                     
                     Map<String, Object> item = new HashMap<>();
                     item.put("registrationId", reg.getId());
@@ -374,15 +437,64 @@ public class AdminController {
                 }
             }
             
+            EventRegistration last = hasMore ? distributions.get(distributions.size() - 1) : null;
             Map<String, Object> response = new HashMap<>();
             response.put("distributions", distributionList);
-            response.put("total", distributionList.size());
+            // Rows on this page; follow nextCursor while hasMore for the rest
+            response.put("count", distributionList.size());
+            response.put("hasMore", hasMore);
+            response.put("nextCursor", last != null ? last.getPointsAwardedAt() + "_" + last.getId() : null);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
     
+    // Full export with the same filters as the feed, streamed row by row from a cursor
+    @GetMapping("/points/distributions/export")
+    public ResponseEntity<?> exportPointDistributions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Long orgId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            if (!verifyAdminToken(authHeader)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+            }
+            
+            DistributionFilter criteria = distributionFilter(filter, orgId, from, to);
+            boolean ndjson = "ndjson".equalsIgnoreCase(format);
+            if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "format must be csv or ndjson"));
+            }
+            
+            StreamingResponseBody body = out -> {
+                if (ndjson) {
+                    pointDistributionExportService.writeNdjson(criteria, out);
+                } else {
+                    pointDistributionExportService.writeCsv(criteria, out);
+                }
+            };
+            String fileName = "point-distributions." + (ndjson ? "ndjson" : "csv");
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    private static DistributionFilter distributionFilter(String filter, Long orgId, String from, String to) {
+        Boolean reviewed = "reviewed".equals(filter) ? Boolean.TRUE : "unreviewed".equals(filter) ? Boolean.FALSE : null;
+        return new DistributionFilter(orgId,
+            from != null ? LocalDate.parse(from).atStartOfDay() : null,
+            to != null ? LocalDate.parse(to).plusDays(1).atStartOfDay() : null,
+            reviewed);
+    }
+    
     // Mark distribution as reviewed by admin
     @PutMapping("/points/distributions/{registrationId}/review")
     public ResponseEntity<?> reviewPointDistribution(
@@ -395,55 +507,14 @@ public class AdminController {
                 return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
             }
             
-            Optional<EventRegistration> regOpt = eventRegistrationRepository.findById(registrationId);
-            if (!regOpt.isPresent()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            EventRegistration reg = regOpt.get();
             String action = (String) request.get("action"); // approve, adjust, revoke
             String notes = (String) request.get("notes");
+            Integer newPoints = "adjust".equals(action) ? Integer.valueOf(request.get("newPoints").toString()) : null;
             
-            reg.setAdminReviewed(true);
-            reg.setAdminReviewedAt(LocalDateTime.now());
-            reg.setAdminNotes(notes);
-            
-            if ("adjust".equals(action)) {
-                // Adjust points
-                Integer newPoints = Integer.valueOf(request.get("newPoints").toString());
-                Integer oldPoints = reg.getPointsAwarded();
-                int pointsDiff = newPoints - oldPoints;
-                
-                // Update user's points
-                Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
-                    user.setVolunteerPoints(user.getVolunteerPoints() + pointsDiff);
-                    userRepository.save(user);
-                }
-                
-                reg.setPointsAwarded(newPoints);
-            } else if ("revoke".equals(action)) {
-                // Revoke points
-                Integer oldPoints = reg.getPointsAwarded();
-                
-                // Deduct from user
-                Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
-                    user.setVolunteerPoints(Math.max(0, user.getVolunteerPoints() - oldPoints));
-                    if ("attended".equals(reg.getAttendanceStatus())) {
-                        user.setEventsCompleted(Math.max(0, user.getEventsCompleted() - 1));
-                    }
-                    userRepository.save(user);
-                }
-                
-                reg.setPointsAwarded(0);
-                reg.setAttendanceStatus("revoked");
+            ReviewResult result = pointReviewService.review(List.of(new ReviewEntry(registrationId, action, newPoints, notes)));
+            if (!result.notFound().isEmpty()) {
+                return ResponseEntity.notFound().build();
             }
-            // "approve" action just marks as reviewed without changes
-            
-            eventRegistrationRepository.save(reg);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -455,6 +526,36 @@ public class AdminController {
         }
     }
     
+    // Review many distributions in one transaction: {"reviews": [{registrationId, action, newPoints?, notes?}]}
+    // or {"action": ..., "registrationIds": [...], "notes": ...}
+    @PostMapping("/points/distributions/review")
+    public ResponseEntity<?> reviewPointDistributions(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            if (!verifyAdminToken(authHeader)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+            }
+            
+            List<ReviewEntry> entries = PointReviewService.parse(request);
+            if (entries.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No reviews provided"));
+            }
+            
+            ReviewResult result = pointReviewService.review(entries);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("reviewed", result.reviewed());
+            response.put("pointsDelta", result.pointsDelta());
+            response.put("notFound", result.notFound());
+            response.put("warnings", result.warnings());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     // Get points summary by organization
     @GetMapping("/points/by-organization")
     public ResponseEntity<?> getPointsByOrganization(@RequestHeader("Authorization") String authHeader) {
@@ -463,24 +564,16 @@ public class AdminController {
                 return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
             }
             
-            List<Organization> orgs = organizationRepository.findAll();
+            // One grouped query instead of a distribution scan per organization
             List<Map<String, Object>> orgStats = new ArrayList<>();
-            
-            for (Organization org : orgs) {
-                List<EventRegistration> distributions = eventRegistrationRepository.findPointDistributionsByOrg(org.getId());
-                
-                int totalPoints = distributions.stream()
-                    .mapToInt(r -> r.getPointsAwarded() != null ? r.getPointsAwarded() : 0).sum();
-                long unreviewed = distributions.stream()
-                    .filter(r -> !Boolean.TRUE.equals(r.getAdminReviewed())).count();
-                
+            for (OrganizationPointsRollup rollup : organizationRepository.findPointsRollup()) {
                 Map<String, Object> stat = new HashMap<>();
-                stat.put("orgId", org.getId());
-                stat.put("orgName", org.getName());
-                stat.put("totalDistributions", distributions.size());
-                stat.put("totalPointsAwarded", totalPoints);
-                stat.put("unreviewedCount", unreviewed);
-                stat.put("verified", org.getVerified());
+                stat.put("orgId", rollup.getOrgId());
+                stat.put("orgName", rollup.getOrgName());
+                stat.put("totalDistributions", rollup.getTotalDistributions());
+                stat.put("totalPointsAwarded", rollup.getTotalPointsAwarded());
+                stat.put("unreviewedCount", rollup.getUnreviewedCount());
+                stat.put("verified", rollup.getVerified());
                 orgStats.add(stat);
             }
             
@@ -490,6 +583,47 @@ public class AdminController {
         }
     }
     
+    // Recompute denormalized counters; repair=false only reports drift
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcileCounters(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            if (!verifyAdminToken(authHeader)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+            }
+            
+            ReconciliationReport report = counterReconciliationService.reconcile(repair);
+            return ResponseEntity.ok(report);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/reconcile/last")
+    public ResponseEntity<?> getLastReconciliation(@RequestHeader("Authorization") String authHeader) {
+        if (!verifyAdminToken(authHeader)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        
+        ReconciliationReport report = counterReconciliationService.getLastReport();
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+    
+    // Hit rates and sizes of the user/organization caches
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(@RequestHeader("Authorization") String authHeader) {
+        if (!verifyAdminToken(authHeader)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        return ResponseEntity.ok(entityCacheService.stats());
+    }
+    
     // Helper method to verify admin token
     private boolean verifyAdminToken(String authHeader) {
         try {
@@ -3,6 +3,8 @@ package com.actify.controller;
 import com.actify.model.User;
 import com.actify.repository.UserRepository;
 import com.actify.security.JwtTokenProvider;
+import com.actify.service.EntityCacheService;
+import com.actify.service.LeaderboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,6 +26,12 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody Map<String, Object> request) {
         try {
@@ -55,6 +63,8 @@ public class AuthController {
             user.setInterests(request.get("interests") != null ? (String) request.get("interests") : "");
             
             userRepository.save(user);
+            entityCacheService.evictUser(user.getId());
+            leaderboardService.updatePoints(user.getId(), user.getVolunteerPoints());
             
             // Generate token for auto-login
             String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
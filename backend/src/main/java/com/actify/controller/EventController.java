@@ -5,20 +5,48 @@ import com.actify.model.EventRegistration;
 import com.actify.model.User;
 import com.actify.repository.EventRepository;
 import com.actify.repository.EventRegistrationRepository;
+import com.actify.repository.EventSummary;
 import com.actify.repository.UserRepository;
+import com.actify.repository.WaitlistRepository;
 import com.actify.security.JwtTokenProvider;
+import com.actify.service.EntityBatchLoader;
+import com.actify.service.EntityCacheService;
+import com.actify.service.EventAdmissionService;
+import com.actify.service.EventChangeNotifier;
+import com.actify.service.EventRecommendationIndex;
+import com.actify.service.EventRecommendationIndex.Recommendation;
+import com.actify.service.EventTextIndex;
+import com.actify.service.EventTextIndex.TextHit;
+import com.actify.service.GeoEventIndex;
+import com.actify.service.GeoEventIndex.GeoHit;
+import com.actify.service.RegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final double MAX_RADIUS_KM = 500;
+    
     @Autowired
     private EventRepository eventRepository;
     
@@ -28,18 +56,266 @@ public class EventController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private EventChangeNotifier eventChangeNotifier;
+    
+    @Autowired
+    private GeoEventIndex geoEventIndex;
+    
+    @Autowired
+    private EventTextIndex eventTextIndex;
+    
+    @Autowired
+    private EventRecommendationIndex eventRecommendationIndex;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private EntityBatchLoader entityBatchLoader;
+    
+    @Autowired
+    private RegistrationService registrationService;
+    
+    @Autowired
+    private EventAdmissionService eventAdmissionService;
+    
     @GetMapping
     public ResponseEntity<?> getAllEvents() {
         List<Event> events = eventRepository.findAll();
         return ResponseEntity.ok(events);
     }
     
+    // Server-side filtered list; pass nextCursor back as "after" for the next page.
+    // from/to are ISO dates (yyyy-MM-dd), inclusive, matched against the event's start time.
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(
+            @RequestParam(required = false) String cause,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "active") String status,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            OffsetDateTime startsFrom = from != null ? LocalDate.parse(from).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime() : null;
+            OffsetDateTime startsBefore = to != null ? LocalDate.parse(to).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime() : null;
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            
+            // One extra row tells whether another page exists
+            List<EventSummary> rows = eventRepository.search(
+                "all".equalsIgnoreCase(status) ? null : status.toLowerCase(Locale.ROOT),
+                normalize(cause), normalize(city), startsFrom, startsBefore, after, Limit.of(pageSize + 1));
+            boolean hasMore = rows.size() > pageSize;
+            List<EventSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("events", page);
+            response.put("size", page.size());
+            response.put("hasMore", hasMore);
+            response.put("nextCursor", hasMore ? page.get(page.size() - 1).getId() : null);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Active events starting between from and to (ISO dates or date-times; from defaults to now,
+    // to to a year after from), soonest first. Pass nextCursor back as "after" for the next page.
+    @GetMapping("/upcoming")
+    public ResponseEntity<?> getUpcomingEvents(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            OffsetDateTime start = from != null ? parseInstant(from) : OffsetDateTime.now();
+            OffsetDateTime end = to != null ? parseInstant(to) : start.plusYears(1);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            
+            // Cursor is "<startsAt epoch millis>_<id>" of the last row of the previous page
+            OffsetDateTime afterStartsAt = start;
+            long afterId = 0;
+            if (after != null) {
+                String[] parts = after.split("_", 2);
+                afterStartsAt = OffsetDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[0])), ZoneOffset.UTC);
+                afterId = Long.parseLong(parts[1]);
+                if (afterStartsAt.isAfter(start)) {
+                    start = afterStartsAt;
+                }
+            }
+            
+            List<EventSummary> rows = eventRepository.findUpcoming(start, end, afterStartsAt, afterId, Limit.of(pageSize + 1));
+            boolean hasMore = rows.size() > pageSize;
+            List<EventSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+            EventSummary last = hasMore ? page.get(page.size() - 1) : null;
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("events", page);
+            response.put("size", page.size());
+            response.put("hasMore", hasMore);
+            response.put("nextCursor", last != null ? last.getStartsAt().toInstant().toEpochMilli() + "_" + last.getId() : null);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // A bare date means the start of that day in the server's zone
+    private static OffsetDateTime parseInstant(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+        }
+        return OffsetDateTime.parse(value);
+    }
+    
+    // Keyword search over active events, best match first; highlights wrap matches in <mark>
+    @GetMapping("/search/text")
+    public ResponseEntity<?> searchEventText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<TextHit> hits = eventTextIndex.search(q, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (!hits.isEmpty()) {
+            Map<Long, EventSummary> summaries = activeSummaries(hits.stream().map(TextHit::eventId).toList());
+            for (TextHit hit : hits) {
+                EventSummary summary = summaries.get(hit.eventId());
+                if (summary == null) {
+                    continue;
+                }
+                Map<String, Object> item = new HashMap<>();
+                item.put("event", summary);
+                item.put("score", Math.round(hit.score() * 1000) / 1000.0);
+                item.put("highlights", hit.highlights());
+                results.add(item);
+            }
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", q);
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Active events matched to the caller's interests, city and past sign-ups
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedEvents(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            String tokenValue = token.replace("Bearer ", "");
+            Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
+            Optional<User> userOpt = entityCacheService.findUser(userId);
+            if (userOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            
+            List<Recommendation> recommendations = eventRecommendationIndex.recommend(userOpt.get(), Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            List<Map<String, Object>> results = new ArrayList<>();
+            if (!recommendations.isEmpty()) {
+                Map<Long, EventSummary> summaries = activeSummaries(recommendations.stream().map(Recommendation::eventId).toList());
+                for (Recommendation recommendation : recommendations) {
+                    EventSummary summary = summaries.get(recommendation.eventId());
+                    if (summary == null) {
+                        continue;
+                    }
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("event", summary);
+                    item.put("score", Math.round(recommendation.score() * 1000) / 1000.0);
+                    item.put("reasons", recommendation.reasons());
+                    results.add(item);
+                }
+            }
+            return ResponseEntity.ok(Map.of("events", results));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Active events within radiusKm of a point, nearest first (map view)
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyEvents(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (!validCoordinates(lat, lng) || radiusKm <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid coordinates or radius"));
+        }
+        double radius = Math.min(radiusKm, MAX_RADIUS_KM);
+        List<GeoHit> hits = geoEventIndex.within(lat, lng, radius, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("radiusKm", radius);
+        response.put("events", withDistances(hits));
+        return ResponseEntity.ok(response);
+    }
+    
+    // The k active events closest to a point, however far away they are
+    @GetMapping("/nearest")
+    public ResponseEntity<?> getNearestEvents(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") int k) {
+        if (!validCoordinates(lat, lng)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid coordinates"));
+        }
+        List<GeoHit> hits = geoEventIndex.nearest(lat, lng, Math.max(1, Math.min(k, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(Map.of("events", withDistances(hits)));
+    }
+    
+    private static boolean validCoordinates(double lat, double lng) {
+        return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+    }
+    
+    // Index hits that are no longer active (ended, expired or changed on another node) are
+    // left out and dropped from this node's indexes
+    private Map<Long, EventSummary> activeSummaries(List<Long> eventIds) {
+        Map<Long, EventSummary> summaries = eventRepository.findActiveSummariesByIdIn(eventIds)
+            .stream().collect(Collectors.toMap(EventSummary::getId, Function.identity()));
+        for (Long eventId : eventIds) {
+            if (!summaries.containsKey(eventId)) {
+                eventChangeNotifier.eventDeleted(eventId);
+            }
+        }
+        return summaries;
+    }
+    
+    // One query for the listed events, kept in distance order
+    private List<Map<String, Object>> withDistances(List<GeoHit> hits) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (hits.isEmpty()) {
+            return result;
+        }
+        Map<Long, EventSummary> summaries = activeSummaries(hits.stream().map(GeoHit::eventId).toList());
+        for (GeoHit hit : hits) {
+            EventSummary summary = summaries.get(hit.eventId());
+            if (summary == null) {
+                continue;
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("event", summary);
+            item.put("distanceKm", Math.round(hit.distanceKm() * 100) / 100.0);
+            result.add(item);
+        }
+        return result;
+    }
+    
+    private static String normalize(String value) {
+        return value == null || value.isBlank() || "all".equalsIgnoreCase(value) ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
     @PostMapping
     public ResponseEntity<?> createEvent(@RequestBody Event event) {
         Event savedEvent = eventRepository.save(event);
+        eventChangeNotifier.eventSaved(savedEvent);
         return ResponseEntity.ok(savedEvent);
     }
     
@@ -61,52 +337,49 @@ public class EventController {
             String tokenValue = token.replace("Bearer ", "");
             Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
             
-            // Check if event exists
-            Optional<Event> eventOpt = eventRepository.findById(id);
-            if (!eventOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Event not found");
-                return ResponseEntity.badRequest().body(response);
-            }
-            
-            Event event = eventOpt.get();
-            
-            // Check if event is approved/active
-            if (!"active".equals(event.getStatus())) {
+            // Sign-ups go through the event's admission queue; if the batch is not done in time, answer with the place in line
+            EventAdmissionService.Admission admission = eventAdmissionService.submit(userId, id);
+            Optional<RegistrationService.RegistrationResult> processed = eventAdmissionService.await(admission);
+            if (processed.isEmpty()) {
+                long position = eventAdmissionService.position(admission);
                 response.put("success", false);
-                response.put("message", "This event is not yet approved for registration");
-                return ResponseEntity.badRequest().body(response);
+                response.put("accepted", true);
+                response.put("admissionId", admission.getId());
+                response.put("position", position);
+                response.put("statusUrl", "/api/events/admissions/" + admission.getId());
+                response.put("message", "Registration received. You are number " + position + " in line");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
             }
             
-            // Check if already registered
-            if (eventRegistrationRepository.existsByUserIdAndEventId(userId, id)) {
+            // Seat and registration are taken atomically; a full event puts the user on its waitlist
+            RegistrationService.RegistrationResult result = processed.get();
+            if (result.outcome() == RegistrationService.Outcome.WAITLISTED) {
                 response.put("success", false);
-                response.put("message", "You are already registered for this event");
-                return ResponseEntity.badRequest().body(response);
+                response.put("waitlisted", true);
+                response.put("position", result.position());
+                response.put("message", "Event is at full capacity. You have been added to the waitlist at position " + result.position());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
             }
-            
-            // Check capacity
-            if (event.getCapacity() != null && event.getVolunteersRegistered() >= event.getCapacity()) {
+            String failure = switch (result.outcome()) {
+                case NOT_FOUND -> "Event not found";
+                case NOT_OPEN -> "This event is not yet approved for registration";
+                case ALREADY_REGISTERED -> "You are already registered for this event";
+                case REGISTERED, WAITLISTED -> null;
+            };
+            if (failure != null) {
                 response.put("success", false);
-                response.put("message", "Event is at full capacity");
+                response.put("message", failure);
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Create registration
-            EventRegistration registration = new EventRegistration();
-            registration.setUserId(userId);
-            registration.setEventId(id);
-            registration.setStatus("registered");
-            eventRegistrationRepository.save(registration);
-            
-            // Update volunteer count
-            event.setVolunteersRegistered(event.getVolunteersRegistered() + 1);
-            eventRepository.save(event);
-            
             response.put("success", true);
             response.put("message", "Successfully registered for event!");
             return ResponseEntity.ok(response);
             
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("message", "Too many registrations for this event right now, please try again shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error registering for event: " + e.getMessage());
@@ -114,6 +387,22 @@ public class EventController {
         }
     }
     
+    @GetMapping("/admissions/{admissionId}")
+    public ResponseEntity<?> getAdmission(@PathVariable String admissionId, @RequestHeader("Authorization") String token) {
+        try {
+            String tokenValue = token.replace("Bearer ", "");
+            Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
+            
+            EventAdmissionService.Admission admission = eventAdmissionService.getAdmission(admissionId);
+            if (admission == null || !userId.equals(admission.getUserId())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(eventAdmissionService.toMap(admission));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}/register")
     public ResponseEntity<?> unregisterFromEvent(@PathVariable Long id, @RequestHeader("Authorization") String token) {
         Map<String, Object> response = new HashMap<>();
@@ -122,31 +411,67 @@ public class EventController {
             String tokenValue = token.replace("Bearer ", "");
             Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
             
-            Optional<EventRegistration> regOpt = eventRegistrationRepository.findByUserIdAndEventId(userId, id);
-            if (!regOpt.isPresent()) {
+            // Registration and its seat are released together, and the seat goes to the waitlist head
+            if (!registrationService.unregister(userId, id)) {
+                if (registrationService.leaveWaitlist(userId, id)) {
+                    response.put("success", true);
+                    response.put("message", "Removed from the waitlist");
+                    return ResponseEntity.ok(response);
+                }
                 response.put("success", false);
                 response.put("message", "You are not registered for this event");
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Delete registration
-            eventRegistrationRepository.delete(regOpt.get());
+            response.put("success", true);
+            response.put("message", "Successfully unregistered from event");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error unregistering from event");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    @GetMapping("/{id}/waitlist")
+    public ResponseEntity<?> getWaitlistStatus(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        try {
+            String tokenValue = token.replace("Bearer ", "");
+            Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
             
-            // Update volunteer count
-            Optional<Event> eventOpt = eventRepository.findById(id);
-            if (eventOpt.isPresent()) {
-                Event event = eventOpt.get();
-                event.setVolunteersRegistered(Math.max(0, event.getVolunteersRegistered() - 1));
-                eventRepository.save(event);
+            long position = registrationService.waitlistPosition(userId, id);
+            Map<String, Object> response = new HashMap<>();
+            response.put("waitlisted", position > 0);
+            response.put("position", position);
+            response.put("size", waitlistRepository.countByEventId(id));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{id}/waitlist")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            String tokenValue = token.replace("Bearer ", "");
+            Long userId = jwtTokenProvider.getUserIdFromToken(tokenValue);
+            
+            if (!registrationService.leaveWaitlist(userId, id)) {
+                response.put("success", false);
+                response.put("message", "You are not on the waitlist for this event");
+                return ResponseEntity.badRequest().body(response);
             }
             
             response.put("success", true);
-            response.put("message", "Successfully unregistered from event");
+            response.put("message", "Removed from the waitlist");
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             response.put("success", false);
-            response.put("message", "Error unregistering from event");
+            response.put("message", "Error leaving waitlist");
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -155,11 +480,11 @@ public class EventController {
     public ResponseEntity<?> getEventRegistrations(@PathVariable Long id) {
         List<EventRegistration> registrations = eventRegistrationRepository.findByEventId(id);
         
-        // Enrich with user data
+        // Enrich with user data, all users in one query
+        Map<Long, User> users = entityBatchLoader.users(registrations.stream().map(EventRegistration::getUserId).toList());
         for (EventRegistration reg : registrations) {
-            Optional<User> userOpt = userRepository.findById(reg.getUserId());
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
+            User user = users.get(reg.getUserId());
+            if (user != null) {
                 reg.setUserName(user.getFirstName() + " " + user.getLastName());
                 reg.setUserEmail(user.getEmail());
             }
@@ -1,39 +1,281 @@
 package com.actify.controller;
 
 import com.actify.model.User;
+import com.actify.repository.LeaderboardRow;
 import com.actify.repository.UserRepository;
+import com.actify.security.JwtTokenProvider;
+import com.actify.service.DimensionalLeaderboardService;
+import com.actify.service.LeaderboardResponseCache;
+import com.actify.service.LeaderboardResponseCache.Payload;
+import com.actify.service.LeaderboardService;
+import com.actify.service.LeaderboardService.RankedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/leaderboard")
 public class LeaderboardController {
-    
+
+    private static final int MAX_LIMIT = LeaderboardService.TRACKED_TOP;
+    private static final int MAX_WINDOW = 50;
+
     @Autowired
     private UserRepository userRepository;
-    
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private DimensionalLeaderboardService dimensionalLeaderboardService;
+
+    @Autowired
+    private LeaderboardResponseCache leaderboardResponseCache;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    // Served from pre-serialized bytes; unchanged polls get 304 without touching the database
     @GetMapping
-    public ResponseEntity<?> getLeaderboard() {
-        List<User> users = userRepository.findAll().stream()
-            .sorted((a, b) -> b.getVolunteerPoints().compareTo(a.getVolunteerPoints()))
-            .limit(20)
-            .collect(Collectors.toList());
-        
-        java.util.List<java.util.Map<String, Object>> leaderboard = users.stream()
-            .map(user -> {
-                java.util.Map<String, Object> entry = new java.util.HashMap<>();
-                entry.put("name", user.getFirstName() + " " + user.getLastName());
-                entry.put("points", user.getVolunteerPoints());
-                entry.put("events", user.getEventsCompleted());
-                entry.put("hours", user.getVolunteerHours());
-                entry.put("badges", 5);
-                return entry;
-            })
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<?> getLeaderboard(@RequestParam(defaultValue = "20") int limit,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        int size = clampLimit(limit);
+        long version = leaderboardService.topVersion();
+        Payload payload = leaderboardResponseCache.get(size, version, () -> hydrate(leaderboardService.top(size)));
+
+        if (LeaderboardResponseCache.matches(ifNoneMatch, payload.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(payload.etag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(payload.etag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(payload.body());
+    }
+
+    // Points earned in an ISO week ("2026-W07"), defaulting to the current week
+    @GetMapping("/weekly")
+    public ResponseEntity<?> getWeeklyLeaderboard(@RequestParam(required = false) String week,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hydrate(dimensionalLeaderboardService.topWeekly(week, clampLimit(limit))));
+    }
+
+    // Points earned in a month ("2026-02"), defaulting to the current month
+    @GetMapping("/monthly")
+    public ResponseEntity<?> getMonthlyLeaderboard(@RequestParam(required = false) String month,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hydrate(dimensionalLeaderboardService.topMonthly(month, clampLimit(limit))));
+    }
+
+    @GetMapping("/city/{city}")
+    public ResponseEntity<?> getCityLeaderboard(@PathVariable String city,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hydrate(dimensionalLeaderboardService.topByCity(city, clampLimit(limit))));
+    }
+
+    @GetMapping("/cause/{cause}")
+    public ResponseEntity<?> getCauseLeaderboard(@PathVariable String cause,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hydrate(dimensionalLeaderboardService.topByCause(cause, clampLimit(limit))));
+    }
+
+    // Rank of the authenticated volunteer
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyRank(@RequestHeader("Authorization") String token) {
+        try {
+            Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""));
+            return rankResponse(userId);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+    }
+
+    @GetMapping("/users/{userId}/rank")
+    public ResponseEntity<?> getUserRank(@PathVariable Long userId) {
+        return rankResponse(userId);
+    }
+
+    // Neighbours ranked directly above and below a volunteer
+    @GetMapping("/around/me")
+    public ResponseEntity<?> getAroundMe(@RequestHeader("Authorization") String token,
+                                         @RequestParam(defaultValue = "10") int size) {
+        try {
+            Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""));
+            return aroundResponse(userId, size);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+        }
+    }
+
+    @GetMapping("/around/{userId}")
+    public ResponseEntity<?> getAroundUser(@PathVariable Long userId,
+                                           @RequestParam(defaultValue = "10") int size) {
+        return aroundResponse(userId, size);
+    }
+
+    // Cursor pagination: "after" walks down the ranking, "before" walks up
+    @GetMapping("/page")
+    public ResponseEntity<?> getPage(@RequestParam(required = false) String after,
+                                     @RequestParam(required = false) String before,
+                                     @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_LIMIT));
+        List<LeaderboardRow> rows;
+        boolean hasMore;
+        boolean firstPage = false;
+
+        try {
+            if (before != null) {
+                long[] cursor = parseCursor(before);
+                rows = new ArrayList<>(userRepository.findLeaderboardBefore((int) cursor[0], cursor[1], Limit.of(pageSize + 1)));
+                hasMore = rows.size() > pageSize;
+                if (hasMore) {
+                    rows.remove(rows.size() - 1);
+                }
+                Collections.reverse(rows);
+            } else {
+                if (after != null) {
+                    long[] cursor = parseCursor(after);
+                    rows = new ArrayList<>(userRepository.findLeaderboardAfter((int) cursor[0], cursor[1], Limit.of(pageSize + 1)));
+                } else {
+                    rows = new ArrayList<>(userRepository.findLeaderboardFirstPage(Limit.of(pageSize + 1)));
+                    firstPage = true;
+                }
+                hasMore = rows.size() > pageSize;
+                if (hasMore) {
+                    rows.remove(rows.size() - 1);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("entries", toEntries(rows));
+        if (!rows.isEmpty()) {
+            LeaderboardRow first = rows.get(0);
+            LeaderboardRow last = rows.get(rows.size() - 1);
+            boolean morePrev = before != null ? hasMore : !firstPage;
+            boolean moreNext = before != null || hasMore;
+            response.put("prevCursor", morePrev ? cursorOf(first) : null);
+            response.put("nextCursor", moreNext ? cursorOf(last) : null);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> aroundResponse(Long userId, int size) {
+        int window = Math.max(0, Math.min(size, MAX_WINDOW));
+        Optional<LeaderboardRow> anchorOpt = userRepository.findLeaderboardRow(userId);
+        if (anchorOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        LeaderboardRow anchor = anchorOpt.get();
+        List<LeaderboardRow> above = new ArrayList<>();
+        List<LeaderboardRow> below = new ArrayList<>();
+        if (window > 0) {
+            above.addAll(userRepository.findLeaderboardBefore(anchor.getVolunteerPoints(), anchor.getId(), Limit.of(window)));
+            Collections.reverse(above);
+            below.addAll(userRepository.findLeaderboardAfter(anchor.getVolunteerPoints(), anchor.getId(), Limit.of(window)));
+        }
+
+        List<LeaderboardRow> rows = new ArrayList<>(above);
+        rows.add(anchor);
+        rows.addAll(below);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", anchor.getId());
+        response.put("rank", leaderboardService.rankOf(anchor.getId()));
+        response.put("totalUsers", leaderboardService.size());
+        response.put("entries", toEntries(rows));
+        response.put("prevCursor", cursorOf(rows.get(0)));
+        response.put("nextCursor", cursorOf(rows.get(rows.size() - 1)));
+        return ResponseEntity.ok(response);
+    }
+
+    // Ranks come from the in-memory index: one lookup for the first row, the rest follow in order
+    private List<Map<String, Object>> toEntries(List<LeaderboardRow> rows) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        int rank = rows.isEmpty() ? -1 : leaderboardService.rankOf(rows.get(0).getId());
+        for (LeaderboardRow row : rows) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("rank", rank > 0 ? rank++ : null);
+            entry.put("userId", row.getId());
+            entry.put("name", row.getFirstName() + " " + row.getLastName());
+            entry.put("points", row.getVolunteerPoints());
+            entry.put("events", row.getEventsCompleted());
+            entry.put("hours", row.getVolunteerHours());
+            entry.put("cursor", cursorOf(row));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    // Loads only the visible rows, in a single query, and keeps the board's order and scores
+    private List<Map<String, Object>> hydrate(List<RankedUser> ranked) {
+        Map<Long, User> users = userRepository.findAllById(ranked.stream().map(RankedUser::userId).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Map<String, Object>> leaderboard = new ArrayList<>();
+        for (RankedUser entry : ranked) {
+            User user = users.get(entry.userId());
+            if (user == null) {
+                continue;
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("rank", entry.rank());
+            row.put("userId", user.getId());
+            row.put("name", user.getFirstName() + " " + user.getLastName());
+            row.put("points", entry.points());
+            row.put("events", user.getEventsCompleted());
+            row.put("hours", user.getVolunteerHours());
+            row.put("badges", 5);
+            leaderboard.add(row);
+        }
+        return leaderboard;
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static String cursorOf(LeaderboardRow row) {
+        return row.getVolunteerPoints() + "_" + row.getId();
+    }
+
+    private static long[] parseCursor(String cursor) {
+        String[] parts = cursor.split("_");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new long[] { Integer.parseInt(parts[0]), Long.parseLong(parts[1]) };
+    }
+
+    private ResponseEntity<?> rankResponse(Long userId) {
+        RankedUser entry = leaderboardService.entryOf(userId);
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", entry.userId());
+        response.put("rank", entry.rank());
+        response.put("points", entry.points());
+        response.put("totalUsers", leaderboardService.size());
+        return ResponseEntity.ok(response);
     }
 }
@@ -9,15 +9,28 @@ import com.actify.repository.EventRepository;
 import com.actify.repository.EventRegistrationRepository;
 import com.actify.repository.UserRepository;
 import com.actify.security.JwtTokenProvider;
+import com.actify.service.AttendanceJobService;
+import com.actify.service.AttendanceJobService.AttendanceJob;
+import com.actify.service.AttendanceService;
+import com.actify.service.AttendanceService.AttendanceResult;
+import com.actify.service.DailyStatsService;
+import com.actify.service.DailyStatsService.DailyPoint;
+import com.actify.service.EntityBatchLoader;
+import com.actify.service.EntityCacheService;
+import com.actify.service.EventChangeNotifier;
+import com.actify.service.OrganizationStatsService;
+import com.actify.service.RegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
@@ -43,6 +56,30 @@ public class OrganizationController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private AttendanceService attendanceService;
+    
+    @Autowired
+    private AttendanceJobService attendanceJobService;
+    
+    @Autowired
+    private EventChangeNotifier eventChangeNotifier;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private EntityBatchLoader entityBatchLoader;
+    
+    @Autowired
+    private RegistrationService registrationService;
+    
+    @Autowired
+    private OrganizationStatsService organizationStatsService;
+    
+    @Autowired
+    private DailyStatsService dailyStatsService;
+    
     // ===== Authentication Endpoints =====
     
     @PostMapping("/auth/register")
@@ -72,6 +109,7 @@ public class OrganizationController {
             org.setState((String) request.get("state"));
             
             organizationRepository.save(org);
+            entityCacheService.evictOrganization(org.getId());
             
             String token = jwtTokenProvider.generateToken(org.getId(), org.getEmail());
             
@@ -133,39 +171,37 @@ public class OrganizationController {
     public ResponseEntity<?> getOrgStats(@RequestHeader("Authorization") String authHeader) {
         try {
             Long orgId = extractOrgIdFromToken(authHeader);
-            Optional<Organization> orgOpt = organizationRepository.findById(orgId);
             
-            if (!orgOpt.isPresent()) {
+            // Trigger-maintained counters on the organization row
+            Optional<Map<String, Object>> stats = organizationStatsService.counters(orgId);
+            if (!stats.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.ok(stats.get());
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    // Daily registrations, attendance and points for charts; defaults to the last 365 days
+    @GetMapping("/stats/daily")
+    public ResponseEntity<?> getOrgDailyStats(@RequestHeader("Authorization") String authHeader,
+                                              @RequestParam(required = false) String from,
+                                              @RequestParam(required = false) String to) {
+        try {
+            Long orgId = extractOrgIdFromToken(authHeader);
+            LocalDate toDay = to != null ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate fromDay = from != null ? LocalDate.parse(from) : toDay.minusDays(364);
             
-            Organization org = orgOpt.get();
-            
-            // Get events count for this organization
-            List<Event> events = eventRepository.findByOrganizerId(orgId);
-            int activeEvents = (int) events.stream().filter(e -> "active".equals(e.getStatus())).count();
-            int completedEvents = (int) events.stream().filter(e -> "completed".equals(e.getStatus())).count();
-            int pendingEvents = (int) events.stream().filter(e -> "pending".equals(e.getStatus())).count();
-            
-            // Calculate total volunteers registered across all events
-            int totalVolunteers = 0;
-            int totalVpDistributed = 0;
-            for (Event event : events) {
-                totalVolunteers += event.getVolunteersRegistered() != null ? event.getVolunteersRegistered() : 0;
-                // Calculate VP distributed for active/completed events
-                if ("active".equals(event.getStatus()) || "completed".equals(event.getStatus())) {
-                    int eventVolunteers = event.getVolunteersRegistered() != null ? event.getVolunteersRegistered() : 0;
-                    totalVpDistributed += eventVolunteers * (event.getPointsReward() != null ? event.getPointsReward() : 0);
-                }
-            }
+            List<DailyPoint> series = dailyStatsService.orgSeries(orgId, fromDay, toDay);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("totalEvents", events.size());
-            response.put("activeEvents", activeEvents);
-            response.put("completedEvents", completedEvents);
-            response.put("volunteersReached", totalVolunteers);
-            response.put("vpDistributed", totalVpDistributed);
-            response.put("pendingEvents", pendingEvents);
+            response.put("from", fromDay);
+            response.put("to", toDay);
+            response.put("days", series);
+            response.put("totals", DailyStatsService.totals(series));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -178,7 +214,7 @@ public class OrganizationController {
     public ResponseEntity<?> getOrgProfile(@RequestHeader("Authorization") String authHeader) {
         try {
             Long orgId = extractOrgIdFromToken(authHeader);
-            Optional<Organization> orgOpt = organizationRepository.findById(orgId);
+            Optional<Organization> orgOpt = entityCacheService.findOrganization(orgId);
             
             if (!orgOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
@@ -200,9 +236,12 @@ public class OrganizationController {
             response.put("state", org.getState());
             response.put("logoUrl", org.getLogoUrl());
             response.put("verified", org.getVerified());
-            response.put("totalEvents", org.getTotalEvents());
-            response.put("volunteersReached", org.getVolunteersReached());
-            response.put("vpDistributed", org.getVpDistributed());
+            // Counters come from the row itself; the cached entity lags behind the triggers
+            organizationStatsService.counters(orgId).ifPresent(stats -> {
+                response.put("totalEvents", stats.get("totalEvents"));
+                response.put("volunteersReached", stats.get("volunteersReached"));
+                response.put("vpDistributed", stats.get("vpDistributed"));
+            });
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
@@ -236,6 +275,7 @@ public class OrganizationController {
             
             org.setUpdatedAt(LocalDateTime.now());
             organizationRepository.save(org);
+            entityCacheService.evictOrganization(orgId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -297,7 +337,7 @@ public class OrganizationController {
                                          @RequestBody Map<String, Object> request) {
         try {
             Long orgId = extractOrgIdFromToken(authHeader);
-            Optional<Organization> orgOpt = organizationRepository.findById(orgId);
+            Optional<Organization> orgOpt = entityCacheService.findOrganization(orgId);
             
             if (!orgOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
@@ -341,10 +381,7 @@ public class OrganizationController {
             }
             
             eventRepository.save(event);
-            
-            // Update organization stats
-            org.setTotalEvents(org.getTotalEvents() + 1);
-            organizationRepository.save(org);
+            eventChangeNotifier.eventSaved(event);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -429,6 +466,8 @@ public class OrganizationController {
                 return ResponseEntity.status(403).body(response);
             }
             
+            Integer oldCapacity = event.getCapacity();
+            
             // Update fields
             if (request.containsKey("title")) event.setTitle((String) request.get("title"));
             if (request.containsKey("description")) event.setDescription((String) request.get("description"));
@@ -444,6 +483,13 @@ public class OrganizationController {
             if (request.containsKey("status")) event.setStatus((String) request.get("status"));
             
             eventRepository.save(event);
+            eventChangeNotifier.eventSaved(event);
+            
+            // Seats added by a capacity increase go to the waitlist first, at most one per added seat
+            Integer newCapacity = event.getCapacity();
+            if (oldCapacity != null && newCapacity != null && newCapacity > oldCapacity) {
+                registrationService.promoteFromWaitlist(eventId, newCapacity - oldCapacity);
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -478,14 +524,7 @@ public class OrganizationController {
             }
             
             eventRepository.delete(event);
-            
-            // Update organization stats
-            Optional<Organization> orgOpt = organizationRepository.findById(orgId);
-            if (orgOpt.isPresent()) {
-                Organization org = orgOpt.get();
-                org.setTotalEvents(Math.max(0, org.getTotalEvents() - 1));
-                organizationRepository.save(org);
-            }
+            eventChangeNotifier.eventDeleted(eventId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -513,14 +552,20 @@ public class OrganizationController {
             List<Map<String, Object>> volunteersList = new ArrayList<>();
             java.util.Set<Long> seenUserIds = new java.util.HashSet<>();
             
+            // One query for every registration and one for every volunteer, grouped back by event
+            Map<Long, List<EventRegistration>> registrationsByEvent = eventRegistrationRepository
+                .findByEventIdIn(orgEvents.stream().map(Event::getId).toList())
+                .stream().collect(Collectors.groupingBy(EventRegistration::getEventId));
+            Map<Long, User> users = entityBatchLoader.users(registrationsByEvent.values().stream()
+                .flatMap(List::stream).map(EventRegistration::getUserId).toList());
+            
             for (Event event : orgEvents) {
-                List<EventRegistration> registrations = eventRegistrationRepository.findByEventId(event.getId());
+                List<EventRegistration> registrations = registrationsByEvent.getOrDefault(event.getId(), List.of());
                 for (EventRegistration reg : registrations) {
                     if (!seenUserIds.contains(reg.getUserId())) {
                         seenUserIds.add(reg.getUserId());
-                        Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                        if (userOpt.isPresent()) {
-                            User user = userOpt.get();
+                        User user = users.get(reg.getUserId());
+                        if (user != null) {
                             Map<String, Object> volunteerData = new HashMap<>();
                             volunteerData.put("id", user.getId());
                             volunteerData.put("name", user.getFirstName() + " " + user.getLastName());
@@ -567,11 +612,11 @@ public class OrganizationController {
             // Get volunteers for this event
             List<EventRegistration> registrations = eventRegistrationRepository.findByEventId(eventId);
             List<Map<String, Object>> volunteersList = new ArrayList<>();
+            Map<Long, User> users = entityBatchLoader.users(registrations.stream().map(EventRegistration::getUserId).toList());
             
             for (EventRegistration reg : registrations) {
-                Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
+                User user = users.get(reg.getUserId());
+                if (user != null) {
                     Map<String, Object> volunteerData = new HashMap<>();
                     volunteerData.put("id", user.getId());
                     volunteerData.put("registrationId", reg.getId());
@@ -608,6 +653,7 @@ public class OrganizationController {
     public ResponseEntity<?> markAttendance(
             @PathVariable Long eventId,
             @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "false") boolean async,
             @RequestBody Map<String, Object> request) {
         try {
             Long orgId = extractOrgIdFromToken(authHeader);
@@ -631,81 +677,34 @@ public class OrganizationController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Attendance data is required"));
             }
             
-            int pointsDistributed = 0;
-            int volunteersMarked = 0;
-            List<String> errors = new ArrayList<>();
-            
-            for (Map<String, Object> attendance : attendanceList) {
-                Long volunteerId = Long.valueOf(attendance.get("volunteerId").toString());
-                String status = (String) attendance.get("status"); // attended, partial, no_show
-                
-                Optional<EventRegistration> regOpt = eventRegistrationRepository.findByUserIdAndEventId(volunteerId, eventId);
-                
-                if (regOpt.isPresent()) {
-                    EventRegistration reg = regOpt.get();
-                    
-                    // Only process if not already awarded
-                    if (reg.getPointsAwarded() == null || reg.getPointsAwarded() == 0) {
-                        reg.setAttendanceStatus(status);
-                        reg.setAttendanceConfirmed(true);
-                        reg.setAwardedByOrgId(orgId);
-                        
-                        // Calculate points based on status
-                        int points = 0;
-                        if ("attended".equals(status)) {
-                            points = event.getPointsReward();
-                        } else if ("partial".equals(status)) {
-                            points = event.getPointsReward() / 2; // Half points for partial attendance
-                        }
-                        // no_show gets 0 points
-                        
-                        if (points > 0) {
-                            reg.setPointsAwarded(points);
-                            reg.setPointsAwardedAt(LocalDateTime.now());
-                            
-                            // Update user's volunteer points
-                            Optional<User> userOpt = userRepository.findById(volunteerId);
-                            if (userOpt.isPresent()) {
-                                User user = userOpt.get();
-                                user.setVolunteerPoints(user.getVolunteerPoints() + points);
-                                if ("attended".equals(status)) {
-                                    user.setEventsCompleted(user.getEventsCompleted() + 1);
-                                    // Add hours (use event duration or default 3 hours)
-                                    int hours = event.getDuration() != null ? event.getDuration() : 3;
-                                    user.setVolunteerHours(user.getVolunteerHours() + hours);
-                                }
-                                userRepository.save(user);
-                            }
-                            
-                            pointsDistributed += points;
-                        }
-                        
-                        eventRegistrationRepository.save(reg);
-                        volunteersMarked++;
-                    } else {
-                        errors.add("Volunteer ID " + volunteerId + " already has points awarded");
-                    }
-                } else {
-                    errors.add("Registration not found for volunteer ID " + volunteerId);
+            // Large events: queue the work and let the client poll the job
+            if (async) {
+                AttendanceJob job;
+                try {
+                    job = attendanceJobService.submit(event, orgId, AttendanceService.parse(attendanceList));
+                } catch (RejectedExecutionException e) {
+                    return ResponseEntity.status(503).body(Map.of("error", "Too many attendance jobs in progress, try again later"));
                 }
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("jobId", job.getId());
+                response.put("status", job.getStatus());
+                response.put("total", attendanceList.size());
+                response.put("statusUrl", "/api/org/attendance-jobs/" + job.getId());
+                return ResponseEntity.accepted().body(response);
             }
             
-            // Update event status to completed if all volunteers are marked
-            List<EventRegistration> allRegs = eventRegistrationRepository.findByEventId(eventId);
-            boolean allMarked = allRegs.stream().allMatch(r -> r.getAttendanceConfirmed());
-            if (allMarked && !allRegs.isEmpty()) {
-                event.setStatus("completed");
-                eventRepository.save(event);
-            }
+            AttendanceResult result = attendanceService.markAttendance(event, orgId, AttendanceService.parse(attendanceList));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Attendance marked successfully");
-            response.put("volunteersMarked", volunteersMarked);
-            response.put("pointsDistributed", pointsDistributed);
-            response.put("eventCompleted", allMarked);
-            if (!errors.isEmpty()) {
-                response.put("warnings", errors);
+            response.put("volunteersMarked", result.volunteersMarked());
+            response.put("pointsDistributed", result.pointsDistributed());
+            response.put("eventCompleted", result.eventCompleted());
+            if (!result.warnings().isEmpty()) {
+                response.put("warnings", result.warnings());
             }
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -713,6 +712,24 @@ public class OrganizationController {
         }
     }
     
+    @GetMapping("/attendance-jobs/{jobId}")
+    public ResponseEntity<?> getAttendanceJob(
+            @PathVariable String jobId,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            Long orgId = extractOrgIdFromToken(authHeader);
+            
+            // Jobs of other organizations are reported as missing
+            AttendanceJob job = attendanceJobService.getJob(jobId);
+            if (job == null || !job.getOrgId().equals(orgId)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(job.toMap());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/events/{eventId}/attendance")
     public ResponseEntity<?> getAttendanceStatus(
             @PathVariable Long eventId,
@@ -765,14 +782,14 @@ public class OrganizationController {
             // Get all point distributions made by this org
             List<EventRegistration> distributions = eventRegistrationRepository.findPointDistributionsByOrg(orgId);
             List<Map<String, Object>> historyList = new ArrayList<>();
+            Map<Long, User> users = entityBatchLoader.users(distributions.stream().map(EventRegistration::getUserId).toList());
+            Map<Long, Event> events = entityBatchLoader.events(distributions.stream().map(EventRegistration::getEventId).toList());
             
             for (EventRegistration reg : distributions) {
-                Optional<User> userOpt = userRepository.findById(reg.getUserId());
-                Optional<Event> eventOpt = eventRepository.findById(reg.getEventId());
+                User user = users.get(reg.getUserId());
+                Event event = events.get(reg.getEventId());
                 
-                if (userOpt.isPresent() && eventOpt.isPresent()) {
-                    User user = userOpt.get();
-                    Event event = eventOpt.get();
+                if (user != null && event != null) {
                     
                     Map<String, Object> historyItem = new HashMap<>();
                     historyItem.put("registrationId", reg.getId());
@@ -2,6 +2,7 @@ package com.actify.controller;
 
 import com.actify.model.Organization;
 import com.actify.repository.OrganizationRepository;
+import com.actify.service.EntityCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,9 @@ public class PublicOrganizationController {
     @Autowired
     private OrganizationRepository organizationRepository;
     
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
     // Get all organizations (for admin panel)
     @GetMapping
     public ResponseEntity<?> getAllOrganizations() {
@@ -57,6 +61,7 @@ public class PublicOrganizationController {
         Organization org = orgOpt.get();
         org.setVerified(true);
         organizationRepository.save(org);
+        entityCacheService.evictOrganization(id);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -78,6 +83,7 @@ public class PublicOrganizationController {
         Organization org = orgOpt.get();
         org.setVerified(false);
         organizationRepository.save(org);
+        entityCacheService.evictOrganization(id);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
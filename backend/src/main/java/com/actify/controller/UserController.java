@@ -1,9 +1,12 @@
 package com.actify.controller;
 
 import com.actify.model.User;
+import com.actify.repository.PointsLedgerRepository;
 import com.actify.repository.UserRepository;
 import com.actify.security.JwtTokenProvider;
+import com.actify.service.EntityCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -20,12 +23,18 @@ public class UserController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
     @GetMapping("/profile")
     public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String token) {
         try {
             String cleanToken = token.replace("Bearer ", "");
             Long userId = jwtTokenProvider.getUserIdFromToken(cleanToken);
-            Optional<User> userOpt = userRepository.findById(userId);
+            Optional<User> userOpt = entityCacheService.findUser(userId);
             
             if(!userOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
@@ -54,6 +63,7 @@ public class UserController {
             String profileImage = payload.get("profileImage");
             user.setProfileImage(profileImage);
             userRepository.save(user);
+            entityCacheService.evictUser(userId);
             
             return ResponseEntity.ok(user);
         } catch (Exception e) {
@@ -61,6 +71,19 @@ public class UserController {
         }
     }
     
+    // Most recent points ledger entries for the authenticated volunteer
+    @GetMapping("/points-ledger")
+    public ResponseEntity<?> getPointsLedger(@RequestHeader("Authorization") String token,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        try {
+            String cleanToken = token.replace("Bearer ", "");
+            Long userId = jwtTokenProvider.getUserIdFromToken(cleanToken);
+            return ResponseEntity.ok(pointsLedgerRepository.findByUserIdOrderByIdDesc(userId, Limit.of(Math.max(1, Math.min(limit, 200)))));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching points ledger: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/leaderboard")
     public ResponseEntity<?> getLeaderboard() {
         try {
@@ -76,7 +99,7 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         try {
-            Optional<User> userOpt = userRepository.findById(id);
+            Optional<User> userOpt = entityCacheService.findUser(id);
             if(!userOpt.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
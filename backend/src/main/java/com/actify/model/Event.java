@@ -2,9 +2,10 @@ package com.actify.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = @Index(name = "idx_events_status_starts_at", columnList = "status, starts_at, id"))
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,6 +40,11 @@ public class Event {
     
     private Integer duration;
     
+    // Derived from date/time/endTime on every save; these are what range queries use
+    private OffsetDateTime startsAt;
+    
+    private OffsetDateTime endsAt;
+    
     @Column(nullable = false)
     private Integer pointsReward = 100;
     
@@ -47,6 +53,8 @@ public class Event {
     
     private Integer capacity = 50;
     
+    // Only moved by the conditional seat updates in EventRepository; a save of a loaded event must not write it back
+    @Column(updatable = false)
     private Integer volunteersRegistered = 0;
     
     @Column(columnDefinition = "TEXT")
@@ -149,5 +157,16 @@ public class Event {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public OffsetDateTime getStartsAt() { return startsAt; }
+    
+    public OffsetDateTime getEndsAt() { return endsAt; }
+    
+    @PrePersist
+    @PreUpdate
+    void syncSchedule() {
+        startsAt = EventSchedule.startsAt(date, time);
+        endsAt = EventSchedule.endsAt(date, time, endTime, duration);
+    }
 }
 
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "event_registrations")
+@Table(name = "event_registrations",
+       uniqueConstraints = @UniqueConstraint(name = "uq_event_registrations_user_event", columnNames = {"user_id", "event_id"}))
 public class EventRegistration {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
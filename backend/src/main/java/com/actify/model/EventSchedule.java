@@ -0,0 +1,96 @@
+package com.actify.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns an event's free-form date/time strings into instants. Dates come
+ * from the create form as ISO dates, older rows use "Jan 29, 2025"; times are
+ * 24-hour from the form or "9:30 AM" from older clients. Local times are
+ * interpreted in the server's time zone.
+ */
+final class EventSchedule {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        caseInsensitive("MMM d, yyyy"),
+        caseInsensitive("MMMM d, yyyy"),
+        caseInsensitive("M/d/yyyy"));
+
+    private static final List<DateTimeFormatter> TIME_FORMATS = List.of(
+        caseInsensitive("H:mm[:ss]"),
+        caseInsensitive("h:mm[ ]a"),
+        caseInsensitive("h[ ]a"));
+
+    private EventSchedule() {}
+
+    static OffsetDateTime startsAt(String date, String time) {
+        LocalDate day = parseDate(date);
+        if (day == null) {
+            return null;
+        }
+        LocalTime start = parseTime(time);
+        return at(day, start != null ? start : LocalTime.MIDNIGHT);
+    }
+
+    // End time before the start time means the event runs past midnight;
+    // with no end time or duration the event is taken to last the whole day
+    static OffsetDateTime endsAt(String date, String time, String endTime, Integer durationHours) {
+        OffsetDateTime start = startsAt(date, time);
+        if (start == null) {
+            return null;
+        }
+        LocalTime end = parseTime(endTime);
+        if (end != null) {
+            OffsetDateTime endsAt = at(start.toLocalDate(), end);
+            return endsAt.isAfter(start) ? endsAt : endsAt.plusDays(1);
+        }
+        if (durationHours != null && durationHours > 0 && parseTime(time) != null) {
+            return start.plusHours(durationHours);
+        }
+        return at(start.toLocalDate().plusDays(1), LocalTime.MIDNIGHT);
+    }
+
+    private static OffsetDateTime at(LocalDate day, LocalTime time) {
+        return day.atTime(time).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value.trim(), format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static LocalTime parseTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (DateTimeFormatter format : TIME_FORMATS) {
+            try {
+                return LocalTime.parse(value.trim(), format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static DateTimeFormatter caseInsensitive(String pattern) {
+        return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern).toFormatter(Locale.ENGLISH);
+    }
+}
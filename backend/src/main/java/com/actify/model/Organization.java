@@ -48,14 +48,15 @@ public class Organization {
     @Column(nullable = false)
     private Boolean active = true;
     
-    // Statistics
-    @Column(nullable = false)
+    // Statistics, maintained by database triggers (16_organization_counters.sql); never written from here.
+    // volunteersReached and vpDistributed are base values; OrganizationStatsService adds the recent deltas.
+    @Column(nullable = false, updatable = false)
     private Integer totalEvents = 0;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer volunteersReached = 0;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer vpDistributed = 0;
     
     @Column(nullable = false)
@@ -0,0 +1,63 @@
+package com.actify.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One immutable line in the points ledger. Every change to a volunteer's
+ * points, completed events or hours is recorded here exactly once; the
+ * idempotency key makes replays of the same award a no-op.
+ */
+@Entity
+@Table(name = "points_ledger", indexes = {
+    @Index(name = "idx_points_ledger_user", columnList = "user_id"),
+    @Index(name = "idx_points_ledger_registration", columnList = "registration_id")
+})
+public class PointsLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Column(name = "registration_id")
+    private Long registrationId;
+    
+    @Column(name = "org_id")
+    private Long orgId;
+    
+    @Column(name = "points_delta", nullable = false)
+    private Integer pointsDelta = 0;
+    
+    @Column(name = "events_delta", nullable = false)
+    private Integer eventsDelta = 0;
+    
+    @Column(name = "hours_delta", nullable = false)
+    private Integer hoursDelta = 0;
+    
+    @Column(nullable = false)
+    private String reason; // attendance, adjust, revoke
+    
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private String idempotencyKey;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Getters only: ledger rows are written once and never updated
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getEventId() { return eventId; }
+    public Long getRegistrationId() { return registrationId; }
+    public Long getOrgId() { return orgId; }
+    public Integer getPointsDelta() { return pointsDelta; }
+    public Integer getEventsDelta() { return eventsDelta; }
+    public Integer getHoursDelta() { return hoursDelta; }
+    public String getReason() { return reason; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -38,13 +38,14 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String interests;
     
-    @Column(nullable = false)
+    // Totals are only moved by PointsLedgerService's atomic updates; a save of a loaded user must not write them back
+    @Column(nullable = false, updatable = false)
     private Integer volunteerPoints = 0;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer eventsCompleted = 0;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer volunteerHours = 0;
     
     @Column(nullable = false)
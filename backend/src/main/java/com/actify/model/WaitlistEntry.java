@@ -0,0 +1,33 @@
+package com.actify.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A volunteer waiting for a seat at a full event. Entries are served in id
+ * order, so the (event_id, id) index gives the head of each event's queue
+ * with a single index seek.
+ */
+@Entity
+@Table(name = "event_waitlist",
+       uniqueConstraints = @UniqueConstraint(name = "uq_event_waitlist_event_user", columnNames = {"event_id", "user_id"}),
+       indexes = @Index(name = "idx_event_waitlist_queue", columnList = "event_id, id"))
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public Long getEventId() { return eventId; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
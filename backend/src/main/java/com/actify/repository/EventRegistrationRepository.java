@@ -1,10 +1,14 @@
 package com.actify.repository;
 
 import com.actify.model.EventRegistration;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +17,14 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     List<EventRegistration> findByEventId(Long eventId);
     List<EventRegistration> findByUserId(Long userId);
     Optional<EventRegistration> findByUserIdAndEventId(Long userId, Long eventId);
+    List<EventRegistration> findByEventIdAndUserIdIn(Long eventId, Collection<Long> userIds);
+    List<EventRegistration> findByEventIdIn(Collection<Long> eventIds);
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
+    
+    // Row count tells a concurrent unregister that it lost the race
+    @Modifying
+    @Query("DELETE FROM EventRegistration er WHERE er.id = :id")
+    int deleteRegistration(@Param("id") Long id);
     long countByEventId(Long eventId);
     long countByEventIdAndStatus(Long eventId, String status);
     
@@ -25,6 +36,20 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     @Query("SELECT er FROM EventRegistration er WHERE er.pointsAwarded > 0 ORDER BY er.pointsAwardedAt DESC")
     List<EventRegistration> findAllPointDistributions();
     
+    // Filtered admin feed, newest award first; keyset on (pointsAwardedAt, id) of the previous page's last row
+    @Query("SELECT er FROM EventRegistration er WHERE er.pointsAwarded > 0 " +
+           "AND (:orgId IS NULL OR er.awardedByOrgId = :orgId) " +
+           "AND (:from IS NULL OR er.pointsAwardedAt >= :from) " +
+           "AND (:to IS NULL OR er.pointsAwardedAt < :to) " +
+           "AND (:reviewed IS NULL OR COALESCE(er.adminReviewed, false) = :reviewed) " +
+           "AND (:afterAwardedAt IS NULL OR er.pointsAwardedAt < :afterAwardedAt " +
+           "OR (er.pointsAwardedAt = :afterAwardedAt AND er.id < :afterId)) " +
+           "ORDER BY er.pointsAwardedAt DESC, er.id DESC")
+    List<EventRegistration> findPointDistributionPage(@Param("orgId") Long orgId, @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to, @Param("reviewed") Boolean reviewed,
+                                                      @Param("afterAwardedAt") LocalDateTime afterAwardedAt,
+                                                      @Param("afterId") Long afterId, Limit limit);
+    
     @Query("SELECT er FROM EventRegistration er WHERE er.awardedByOrgId = :orgId AND er.pointsAwarded > 0 ORDER BY er.pointsAwardedAt DESC")
     List<EventRegistration> findPointDistributionsByOrg(@Param("orgId") Long orgId);
     
@@ -33,4 +58,19 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     
     @Query("SELECT COUNT(er) FROM EventRegistration er WHERE er.userId = :userId AND er.attendanceStatus = 'attended'")
     Long countAttendedEventsByUser(@Param("userId") Long userId);
+    
+    // Row 0: [total registrations, registrations with attendance confirmed]
+    @Query("SELECT COUNT(er), SUM(CASE WHEN er.attendanceConfirmed = true THEN 1 ELSE 0 END) FROM EventRegistration er WHERE er.eventId = :eventId")
+    List<Object[]> countConfirmedByEventId(@Param("eventId") Long eventId);
+    
+    // [eventId, cause] of every event the user signed up for, for recommendations
+    @Query("SELECT er.eventId, e.cause FROM EventRegistration er, Event e WHERE e.id = er.eventId AND er.userId = :userId")
+    List<Object[]> findRegisteredEventCauses(@Param("userId") Long userId);
+    
+    // Seed data for the dimensional leaderboards
+    @Query("SELECT er.userId, e.cause, SUM(er.pointsAwarded) FROM EventRegistration er, Event e WHERE e.id = er.eventId AND er.pointsAwarded > 0 GROUP BY er.userId, e.cause")
+    List<Object[]> sumAwardedPointsByUserAndCause();
+    
+    @Query("SELECT er.userId, er.pointsAwarded, er.pointsAwardedAt FROM EventRegistration er WHERE er.pointsAwarded > 0 AND er.pointsAwardedAt >= :since")
+    List<Object[]> findAwardsSince(@Param("since") LocalDateTime since);
 }
@@ -1,9 +1,18 @@
 package com.actify.repository;
 
 import com.actify.model.Event;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
@@ -11,5 +20,74 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByStatus(String status);
     List<Event> findByCause(String cause);
     List<Event> findByCity(String city);
+
+    @Query("SELECT e.id, e.latitude, e.longitude FROM Event e WHERE e.status = 'active' AND e.latitude IS NOT NULL AND e.longitude IS NOT NULL")
+    List<Object[]> findActiveLocations();
+
+    // Hydrates in-memory index hits; indexes on other nodes may still list events that have since ended
+    @Query("SELECT e.id AS id, e.title AS title, e.cause AS cause, e.location AS location, e.city AS city, e.state AS state, " +
+           "e.latitude AS latitude, e.longitude AS longitude, e.date AS date, e.time AS time, e.endTime AS endTime, " +
+           "e.duration AS duration, e.startsAt AS startsAt, e.endsAt AS endsAt, e.pointsReward AS pointsReward, e.status AS status, e.capacity AS capacity, " +
+           "e.volunteersRegistered AS volunteersRegistered, e.imageUrl AS imageUrl, e.organizerId AS organizerId, " +
+           "e.organizerName AS organizerName FROM Event e WHERE e.id IN :ids AND e.status = 'active'")
+    List<EventSummary> findActiveSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Filtered list view, newest first; keyset on id (afterId = last id of the previous page).
+    // city is compared lowercased, matching idx_events_lower_city_id
+    @Query("SELECT e.id AS id, e.title AS title, e.cause AS cause, e.location AS location, e.city AS city, e.state AS state, " +
+           "e.latitude AS latitude, e.longitude AS longitude, e.date AS date, e.time AS time, e.endTime AS endTime, " +
+           "e.duration AS duration, e.startsAt AS startsAt, e.endsAt AS endsAt, e.pointsReward AS pointsReward, e.status AS status, e.capacity AS capacity, " +
+           "e.volunteersRegistered AS volunteersRegistered, e.imageUrl AS imageUrl, e.organizerId AS organizerId, " +
+           "e.organizerName AS organizerName FROM Event e " +
+           "WHERE (:status IS NULL OR e.status = :status) " +
+           "AND (:cause IS NULL OR e.cause = :cause) " +
+           "AND (:city IS NULL OR LOWER(e.city) = :city) " +
+           "AND (:startsFrom IS NULL OR e.startsAt >= :startsFrom) " +
+           "AND (:startsBefore IS NULL OR e.startsAt < :startsBefore) " +
+           "AND (:afterId IS NULL OR e.id < :afterId) " +
+           "ORDER BY e.id DESC")
+    List<EventSummary> search(@Param("status") String status, @Param("cause") String cause, @Param("city") String city,
+                              @Param("startsFrom") OffsetDateTime startsFrom, @Param("startsBefore") OffsetDateTime startsBefore,
+                              @Param("afterId") Long afterId, Limit limit);
+
+    // Active events starting in [from, to), soonest first; keyset on (startsAt, id).
+    // Matches idx_events_status_starts_at, so it is an index range scan with no sort
+    @Query("SELECT e.id AS id, e.title AS title, e.cause AS cause, e.location AS location, e.city AS city, e.state AS state, " +
+           "e.latitude AS latitude, e.longitude AS longitude, e.date AS date, e.time AS time, e.endTime AS endTime, " +
+           "e.duration AS duration, e.startsAt AS startsAt, e.endsAt AS endsAt, e.pointsReward AS pointsReward, e.status AS status, " +
+           "e.capacity AS capacity, e.volunteersRegistered AS volunteersRegistered, e.imageUrl AS imageUrl, " +
+           "e.organizerId AS organizerId, e.organizerName AS organizerName FROM Event e " +
+           "WHERE e.status = 'active' AND e.startsAt >= :from AND e.startsAt < :to " +
+           "AND (e.startsAt > :afterStartsAt OR (e.startsAt = :afterStartsAt AND e.id > :afterId)) " +
+           "ORDER BY e.startsAt, e.id")
+    List<EventSummary> findUpcoming(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to,
+                                    @Param("afterStartsAt") OffsetDateTime afterStartsAt, @Param("afterId") Long afterId,
+                                    Limit limit);
+
+    // Takes a seat only while the event is open and below capacity; 0 rows means no seat
+    @Modifying
+    @Query("UPDATE Event e SET e.volunteersRegistered = COALESCE(e.volunteersRegistered, 0) + 1 " +
+           "WHERE e.id = :id AND e.status = 'active' AND (e.capacity IS NULL OR COALESCE(e.volunteersRegistered, 0) < e.capacity)")
+    int reserveSeat(@Param("id") Long id);
+
+    // Row lock for a batch of admissions; waitlist promotions wait on it in reserveSeat
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> lockById(@Param("id") Long id);
+
+    // Only valid while the row is held by lockById and the seats were checked against capacity
+    @Modifying
+    @Query("UPDATE Event e SET e.volunteersRegistered = COALESCE(e.volunteersRegistered, 0) + :seats WHERE e.id = :id")
+    int takeSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.volunteersRegistered = CASE WHEN e.volunteersRegistered > 0 THEN e.volunteersRegistered - 1 ELSE 0 END " +
+           "WHERE e.id = :id")
+    int releaseSeat(@Param("id") Long id);
+
+    // Touches only the status column, so a detached or stale Event is never merged back
+    @Modifying
+    @Query("UPDATE Event e SET e.status = 'completed', e.updatedAt = CURRENT_TIMESTAMP WHERE e.id = :id AND e.status <> 'completed'")
+    int markCompleted(@Param("id") Long id);
 }
 
@@ -0,0 +1,31 @@
+package com.actify.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * List view of an event. Leaves out the TEXT columns (description, skills,
+ * requirements) that only the detail page needs.
+ */
+public interface EventSummary {
+    Long getId();
+    String getTitle();
+    String getCause();
+    String getLocation();
+    String getCity();
+    String getState();
+    Double getLatitude();
+    Double getLongitude();
+    String getDate();
+    String getTime();
+    String getEndTime();
+    Integer getDuration();
+    OffsetDateTime getStartsAt();
+    OffsetDateTime getEndsAt();
+    Integer getPointsReward();
+    String getStatus();
+    Integer getCapacity();
+    Integer getVolunteersRegistered();
+    String getImageUrl();
+    Long getOrganizerId();
+    String getOrganizerName();
+}
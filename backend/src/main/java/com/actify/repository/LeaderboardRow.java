@@ -0,0 +1,13 @@
+package com.actify.repository;
+
+/**
+ * Lightweight projection of the user columns shown on the leaderboard.
+ */
+public interface LeaderboardRow {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+    Integer getVolunteerPoints();
+    Integer getEventsCompleted();
+    Integer getVolunteerHours();
+}
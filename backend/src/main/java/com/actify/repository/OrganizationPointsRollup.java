@@ -0,0 +1,14 @@
+package com.actify.repository;
+
+/**
+ * Per-organization totals over the point distributions it made, as shown on
+ * the admin points page.
+ */
+public interface OrganizationPointsRollup {
+    Long getOrgId();
+    String getOrgName();
+    Boolean getVerified();
+    Long getTotalDistributions();
+    Long getTotalPointsAwarded();
+    Long getUnreviewedCount();
+}
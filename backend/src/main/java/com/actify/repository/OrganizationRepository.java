@@ -2,6 +2,7 @@ package com.actify.repository;
 
 import com.actify.model.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,13 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     boolean existsByEmail(String email);
     List<Organization> findByVerified(boolean verified);
     List<Organization> findByActive(boolean active);
+
+    // Every organization with its distribution totals in one grouped query; organizations that
+    // never awarded points come back with zeros
+    @Query("SELECT o.id AS orgId, o.name AS orgName, o.verified AS verified, COUNT(er.id) AS totalDistributions, " +
+           "COALESCE(SUM(er.pointsAwarded), 0) AS totalPointsAwarded, " +
+           "COALESCE(SUM(CASE WHEN er.id IS NOT NULL AND (er.adminReviewed IS NULL OR er.adminReviewed = false) THEN 1 ELSE 0 END), 0) AS unreviewedCount " +
+           "FROM Organization o LEFT JOIN EventRegistration er ON er.awardedByOrgId = o.id AND er.pointsAwarded > 0 " +
+           "GROUP BY o.id, o.name, o.verified ORDER BY o.id")
+    List<OrganizationPointsRollup> findPointsRollup();
 }
@@ -0,0 +1,21 @@
+package com.actify.repository;
+
+import com.actify.model.PointsLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PointsLedgerRepository extends JpaRepository<PointsLedgerEntry, Long> {
+    List<PointsLedgerEntry> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+    List<PointsLedgerEntry> findByRegistrationIdOrderByIdAsc(Long registrationId);
+    
+    // What each registration has credited so far: [registrationId, points, events, hours]
+    @Query("SELECT l.registrationId, SUM(l.pointsDelta), SUM(l.eventsDelta), SUM(l.hoursDelta) " +
+           "FROM PointsLedgerEntry l WHERE l.registrationId IN :ids GROUP BY l.registrationId")
+    List<Object[]> sumDeltasByRegistrationIds(@Param("ids") Collection<Long> ids);
+}
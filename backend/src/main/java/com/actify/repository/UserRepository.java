@@ -1,8 +1,12 @@
 package com.actify.repository;
 
 import com.actify.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,34 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findTop20ByOrderByVolunteerPointsDesc();
+
+    // Id, points and city only, used to build the in-memory overall and city leaderboards
+    @Query("SELECT u.id, u.volunteerPoints, u.city FROM User u")
+    List<Object[]> findAllPointTotals();
+
+    @Query("SELECT u.id, u.volunteerPoints, u.city FROM User u WHERE u.id IN :ids")
+    List<Object[]> findPointTotalsByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset leaderboard pages, ordered by (volunteerPoints DESC, id ASC) to match idx_users_volunteer_points
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.volunteerPoints AS volunteerPoints, " +
+           "u.eventsCompleted AS eventsCompleted, u.volunteerHours AS volunteerHours FROM User u WHERE u.id = :id")
+    Optional<LeaderboardRow> findLeaderboardRow(@Param("id") Long id);
+
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.volunteerPoints AS volunteerPoints, " +
+           "u.eventsCompleted AS eventsCompleted, u.volunteerHours AS volunteerHours FROM User u " +
+           "ORDER BY u.volunteerPoints DESC, u.id ASC")
+    List<LeaderboardRow> findLeaderboardFirstPage(Limit limit);
+
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.volunteerPoints AS volunteerPoints, " +
+           "u.eventsCompleted AS eventsCompleted, u.volunteerHours AS volunteerHours FROM User u " +
+           "WHERE u.volunteerPoints <= :points AND (u.volunteerPoints < :points OR u.id > :id) " +
+           "ORDER BY u.volunteerPoints DESC, u.id ASC")
+    List<LeaderboardRow> findLeaderboardAfter(@Param("points") Integer points, @Param("id") Long id, Limit limit);
+
+    // Rows ranked ahead of the cursor, nearest first (callers reverse them for display)
+    @Query("SELECT u.id AS id, u.firstName AS firstName, u.lastName AS lastName, u.volunteerPoints AS volunteerPoints, " +
+           "u.eventsCompleted AS eventsCompleted, u.volunteerHours AS volunteerHours FROM User u " +
+           "WHERE u.volunteerPoints >= :points AND (u.volunteerPoints > :points OR u.id < :id) " +
+           "ORDER BY u.volunteerPoints ASC, u.id DESC")
+    List<LeaderboardRow> findLeaderboardBefore(@Param("points") Integer points, @Param("id") Long id, Limit limit);
 }
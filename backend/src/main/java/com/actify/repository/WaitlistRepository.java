@@ -0,0 +1,32 @@
+package com.actify.repository;
+
+import com.actify.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    Optional<WaitlistEntry> findByEventIdAndUserId(Long eventId, Long userId);
+    long countByEventId(Long eventId);
+    
+    // 0-based position: entries queued ahead of the given one
+    long countByEventIdAndIdLessThan(Long eventId, Long id);
+    
+    // Duplicate joins are silently ignored
+    @Modifying
+    @Query(value = "INSERT INTO event_waitlist (event_id, user_id, created_at) VALUES (:eventId, :userId, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (event_id, user_id) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("eventId") Long eventId, @Param("userId") Long userId);
+    
+    // Head of the queue; rows another promotion is already handling are skipped
+    @Query(value = "SELECT * FROM event_waitlist WHERE event_id = :eventId ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<WaitlistEntry> lockHead(@Param("eventId") Long eventId);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.eventId = :eventId AND w.userId = :userId")
+    int dequeue(@Param("eventId") Long eventId, @Param("userId") Long userId);
+}
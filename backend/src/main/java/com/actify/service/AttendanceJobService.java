@@ -0,0 +1,163 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.service.AttendanceService.AttendanceEntry;
+import com.actify.service.AttendanceService.AttendanceResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs large attendance submissions in the background. Each job is split into
+ * fixed-size chunks that are processed in their own short transaction, so a
+ * 10k-volunteer event neither blocks a request thread nor holds one long
+ * transaction. Progress is kept in memory and polled by job id.
+ */
+@Service
+public class AttendanceJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceJobService.class);
+
+    // Finished jobs are kept this long for polling
+    private static final long RETENTION_MINUTES = 60;
+
+    public static class AttendanceJob {
+        private final String id = UUID.randomUUID().toString();
+        private final Long eventId;
+        private final Long orgId;
+        private final int total;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger volunteersMarked = new AtomicInteger();
+        private final AtomicInteger pointsDistributed = new AtomicInteger();
+        private final List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "queued"; // queued, running, completed, failed
+        private volatile boolean eventCompleted;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        AttendanceJob(Long eventId, Long orgId, int total) {
+            this.eventId = eventId;
+            this.orgId = orgId;
+            this.total = total;
+        }
+
+        public String getId() { return id; }
+        public Long getEventId() { return eventId; }
+        public Long getOrgId() { return orgId; }
+        public String getStatus() { return status; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("eventId", eventId);
+            map.put("status", status);
+            map.put("total", total);
+            map.put("processed", processed.get());
+            map.put("progress", total == 0 ? 100 : processed.get() * 100 / total);
+            map.put("volunteersMarked", volunteersMarked.get());
+            map.put("pointsDistributed", pointsDistributed.get());
+            map.put("eventCompleted", eventCompleted);
+            synchronized (warnings) {
+                map.put("warnings", new ArrayList<>(warnings));
+            }
+            map.put("createdAt", createdAt);
+            map.put("finishedAt", finishedAt);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Value("${app.attendance.job-chunk-size:500}")
+    private int chunkSize;
+
+    private final Map<String, AttendanceJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public AttendanceJobService(@Value("${app.attendance.job-threads:2}") int threads,
+                                @Value("${app.attendance.job-queue-capacity:50}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "attendance-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues the entries for background processing and returns the job.
+     * Throws RejectedExecutionException when the job queue is full.
+     */
+    public AttendanceJob submit(Event event, Long orgId, List<AttendanceEntry> entries) {
+        evictFinished();
+        AttendanceJob job = new AttendanceJob(event.getId(), orgId, entries.size());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, event, entries));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public AttendanceJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void run(AttendanceJob job, Event event, List<AttendanceEntry> entries) {
+        job.status = "running";
+        try {
+            int step = Math.max(1, chunkSize);
+            for (int from = 0; from < entries.size(); from += step) {
+                List<AttendanceEntry> chunk = entries.subList(from, Math.min(from + step, entries.size()));
+                AttendanceResult result = attendanceService.process(event, job.orgId, chunk);
+                job.volunteersMarked.addAndGet(result.volunteersMarked());
+                job.pointsDistributed.addAndGet(result.pointsDistributed());
+                job.warnings.addAll(result.warnings());
+                job.processed.addAndGet(chunk.size());
+            }
+            job.eventCompleted = attendanceService.completeIfAllMarked(event);
+            job.status = "completed";
+        } catch (Exception e) {
+            log.error("Attendance job {} for event {} failed", job.id, job.eventId, e);
+            job.error = e.getMessage();
+            job.status = "failed";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
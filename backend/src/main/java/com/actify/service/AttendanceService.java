@@ -0,0 +1,167 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.model.EventRegistration;
+import com.actify.repository.EventRegistrationRepository;
+import com.actify.repository.EventRepository;
+import com.actify.service.PointsLedgerService.PointsAward;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Marks attendance and distributes points for an event. Works set-wise: the
+ * affected registrations are loaded with a handful of IN queries, changes are
+ * flushed as batched updates and all point awards go to the ledger in one
+ * batch, so the number of round trips does not grow with the volunteer count.
+ */
+@Service
+public class AttendanceService {
+
+    public record AttendanceEntry(Long volunteerId, String status) {}
+
+    public record AttendanceResult(int volunteersMarked, int pointsDistributed, boolean eventCompleted, List<String> warnings) {}
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
+    @Autowired
+    private EventChangeNotifier eventChangeNotifier;
+
+    // Parses the "attendance" payload of the attendance endpoint
+    public static List<AttendanceEntry> parse(List<Map<String, Object>> attendanceList) {
+        List<AttendanceEntry> entries = new ArrayList<>(attendanceList.size());
+        for (Map<String, Object> attendance : attendanceList) {
+            Long volunteerId = Long.valueOf(attendance.get("volunteerId").toString());
+            String status = (String) attendance.get("status"); // attended, partial, no_show
+            entries.add(new AttendanceEntry(volunteerId, status));
+        }
+        return entries;
+    }
+
+    /**
+     * Applies the entries in order with the same rules and warnings as marking
+     * them one at a time. Completion of the event is checked once at the end.
+     */
+    @Transactional
+    public AttendanceResult markAttendance(Event event, Long orgId, List<AttendanceEntry> entries) {
+        AttendanceResult result = process(event, orgId, entries);
+        boolean completed = completeIfAllMarked(event);
+        return new AttendanceResult(result.volunteersMarked(), result.pointsDistributed(), completed, result.warnings());
+    }
+
+    /**
+     * Processes one chunk of entries without the completion check, for callers
+     * that split a large payload across several transactions.
+     */
+    @Transactional
+    public AttendanceResult process(Event event, Long orgId, List<AttendanceEntry> entries) {
+        Long eventId = event.getId();
+        // Same lock order as sign-ups (event row, then the counter rows the registration triggers touch)
+        eventRepository.lockById(eventId);
+        Map<Long, EventRegistration> registrations = loadRegistrations(eventId, entries);
+
+        int pointsDistributed = 0;
+        int volunteersMarked = 0;
+        List<String> errors = new ArrayList<>();
+        List<PointsAward> awards = new ArrayList<>();
+        Set<EventRegistration> changed = new LinkedHashSet<>();
+
+        for (AttendanceEntry entry : entries) {
+            Long volunteerId = entry.volunteerId();
+            String status = entry.status();
+            EventRegistration reg = registrations.get(volunteerId);
+
+            if (reg == null) {
+                errors.add("Registration not found for volunteer ID " + volunteerId);
+                continue;
+            }
+
+            // Only process if not already awarded
+            if (reg.getPointsAwarded() != null && reg.getPointsAwarded() != 0) {
+                errors.add("Volunteer ID " + volunteerId + " already has points awarded");
+                continue;
+            }
+
+            String idempotencyKey = PointsLedgerService.keyFor("attendance", reg);
+            reg.setAttendanceStatus(status);
+            reg.setAttendanceConfirmed(true);
+            reg.setAwardedByOrgId(orgId);
+
+            // Calculate points based on status
+            int points = 0;
+            if ("attended".equals(status)) {
+                points = event.getPointsReward();
+            } else if ("partial".equals(status)) {
+                points = event.getPointsReward() / 2; // Half points for partial attendance
+            }
+            // no_show gets 0 points
+
+            if (points > 0) {
+                reg.setPointsAwarded(points);
+                reg.setPointsAwardedAt(LocalDateTime.now());
+
+                boolean attended = "attended".equals(status);
+                // Add hours (use event duration or default 3 hours)
+                int hours = attended ? (event.getDuration() != null ? event.getDuration() : 3) : 0;
+                awards.add(new PointsAward(volunteerId, eventId, reg.getId(), orgId,
+                    points, attended ? 1 : 0, hours, "attendance", idempotencyKey,
+                    event.getCause(), reg.getPointsAwardedAt()));
+
+                pointsDistributed += points;
+            }
+
+            changed.add(reg);
+            volunteersMarked++;
+        }
+
+        // Flushed as JDBC batches (hibernate.jdbc.batch_size)
+        eventRegistrationRepository.saveAll(changed);
+        pointsLedgerService.applyAll(awards);
+
+        return new AttendanceResult(volunteersMarked, pointsDistributed, false, errors);
+    }
+
+    // Update event status to completed if all volunteers are marked
+    @Transactional
+    public boolean completeIfAllMarked(Event event) {
+        Object[] counts = eventRegistrationRepository.countConfirmedByEventId(event.getId()).get(0);
+        long total = ((Number) counts[0]).longValue();
+        long confirmed = counts[1] != null ? ((Number) counts[1]).longValue() : 0L;
+        boolean allMarked = total == 0 || confirmed == total;
+        if (allMarked && total > 0 && !"completed".equals(event.getStatus())) {
+            eventRepository.markCompleted(event.getId());
+            event.setStatus("completed");
+            eventChangeNotifier.eventSaved(event);
+        }
+        return allMarked;
+    }
+
+    private Map<Long, EventRegistration> loadRegistrations(Long eventId, List<AttendanceEntry> entries) {
+        List<Long> volunteerIds = new ArrayList<>(new LinkedHashSet<>(entries.stream().map(AttendanceEntry::volunteerId).toList()));
+        Map<Long, EventRegistration> registrations = new HashMap<>();
+        for (int from = 0; from < volunteerIds.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = volunteerIds.subList(from, Math.min(from + LOOKUP_CHUNK, volunteerIds.size()));
+            for (EventRegistration reg : eventRegistrationRepository.findByEventIdAndUserIdIn(eventId, chunk)) {
+                registrations.put(reg.getUserId(), reg);
+            }
+        }
+        return registrations;
+    }
+}
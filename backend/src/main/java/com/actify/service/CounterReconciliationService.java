@@ -0,0 +1,314 @@
+package com.actify.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes the denormalized counters on users, events and organizations from
+ * event_registrations and reports (or repairs) rows that have drifted.
+ *
+ * Every table is walked in id-range chunks on a small thread pool. A chunk
+ * aggregates the registrations of the owners in its range only, so each
+ * aggregate is final within the chunk and only drifted rows come back to the
+ * application; memory stays flat however large the tables are. Repairs are
+ * guarded by the stored values that were read, so a row changed by online
+ * traffic in the meantime is left alone and picked up by the next run.
+ */
+@Service
+public class CounterReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+    private static final int MAX_SAMPLES = 100;
+
+    public record Drift(String table, long id, String counter, long stored, long actual) {}
+
+    public record ReconciliationReport(boolean repair, LocalDateTime startedAt, long durationMs, int chunks,
+                                       Map<String, Long> driftedRows, Map<String, Long> repairedRows,
+                                       Map<String, Long> driftByCounter, List<Drift> samples) {}
+
+    /**
+     * One set of counters, chunked by the ids of idTable. The drift query
+     * takes (lo, hi) twice per aggregate plus once for the owner table and
+     * returns id followed by stored/actual pairs for each counter. The repair
+     * statement takes the actual values, the id and then the stored values it
+     * expects to replace.
+     */
+    private record Target(String table, String idTable, String[] counters, String driftSql, int rangeParams, String repairSql) {}
+
+    private static final Target USERS = new Target("users", "users",
+        new String[] {"volunteer_points", "events_completed", "volunteer_hours"},
+        "SELECT u.id, COALESCE(u.volunteer_points, 0), COALESCE(a.points, 0), " +
+        "COALESCE(u.events_completed, 0), COALESCE(a.events, 0), " +
+        "COALESCE(u.volunteer_hours, 0), COALESCE(a.hours, 0) " +
+        "FROM users u LEFT JOIN (" +
+        "  SELECT r.user_id, SUM(COALESCE(r.points_awarded, 0)) AS points, " +
+        "  COUNT(*) FILTER (WHERE r.attendance_status = 'attended' AND r.points_awarded_at IS NOT NULL) AS events, " +
+        "  SUM(CASE WHEN r.attendance_status = 'attended' AND r.points_awarded_at IS NOT NULL THEN COALESCE(e.duration, 3) ELSE 0 END) AS hours " +
+        "  FROM event_registrations r LEFT JOIN events e ON e.id = r.event_id " +
+        "  WHERE r.user_id >= ? AND r.user_id < ? GROUP BY r.user_id" +
+        ") a ON a.user_id = u.id " +
+        "WHERE u.id >= ? AND u.id < ? AND (COALESCE(u.volunteer_points, 0) <> COALESCE(a.points, 0) " +
+        "OR COALESCE(u.events_completed, 0) <> COALESCE(a.events, 0) " +
+        "OR COALESCE(u.volunteer_hours, 0) <> COALESCE(a.hours, 0))",
+        2,
+        "UPDATE users SET volunteer_points = ?, events_completed = ?, volunteer_hours = ?, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE id = ? AND COALESCE(volunteer_points, 0) = ? AND COALESCE(events_completed, 0) = ? AND COALESCE(volunteer_hours, 0) = ?");
+
+    private static final Target EVENTS = new Target("events", "events",
+        new String[] {"volunteers_registered"},
+        "SELECT e.id, COALESCE(e.volunteers_registered, 0), COALESCE(a.registered, 0) " +
+        "FROM events e LEFT JOIN (" +
+        "  SELECT r.event_id, COUNT(*) AS registered FROM event_registrations r " +
+        "  WHERE r.event_id >= ? AND r.event_id < ? AND r.status = 'registered' GROUP BY r.event_id" +
+        ") a ON a.event_id = e.id " +
+        "WHERE e.id >= ? AND e.id < ? AND COALESCE(e.volunteers_registered, 0) <> COALESCE(a.registered, 0)",
+        2,
+        "UPDATE events SET volunteers_registered = ?, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE id = ? AND COALESCE(volunteers_registered, 0) = ?");
+
+    private static final Target ORGANIZATIONS = new Target("organizations", "organizations",
+        new String[] {"total_events", "pending_events", "active_events", "completed_events", "rejected_events", "expired_events"},
+        "SELECT o.id, COALESCE(o.total_events, 0), COALESCE(ev.total, 0), " +
+        "o.pending_events, COALESCE(ev.pending, 0), o.active_events, COALESCE(ev.active, 0), " +
+        "o.completed_events, COALESCE(ev.completed, 0), o.rejected_events, COALESCE(ev.rejected, 0), " +
+        "o.expired_events, COALESCE(ev.expired, 0) " +
+        "FROM organizations o LEFT JOIN (" +
+        "  SELECT e.organizer_id, COUNT(*) AS total, " +
+        "  COUNT(*) FILTER (WHERE e.status = 'pending') AS pending, COUNT(*) FILTER (WHERE e.status = 'active') AS active, " +
+        "  COUNT(*) FILTER (WHERE e.status = 'completed') AS completed, COUNT(*) FILTER (WHERE e.status = 'rejected') AS rejected, " +
+        "  COUNT(*) FILTER (WHERE e.status = 'expired') AS expired FROM events e " +
+        "  WHERE e.organizer_id >= ? AND e.organizer_id < ? GROUP BY e.organizer_id" +
+        ") ev ON ev.organizer_id = o.id " +
+        "WHERE o.id >= ? AND o.id < ? AND (COALESCE(o.total_events, 0) <> COALESCE(ev.total, 0) " +
+        "OR o.pending_events <> COALESCE(ev.pending, 0) OR o.active_events <> COALESCE(ev.active, 0) " +
+        "OR o.completed_events <> COALESCE(ev.completed, 0) OR o.rejected_events <> COALESCE(ev.rejected, 0) " +
+        "OR o.expired_events <> COALESCE(ev.expired, 0))",
+        2,
+        "UPDATE organizations SET total_events = ?, pending_events = ?, active_events = ?, completed_events = ?, " +
+        "rejected_events = ?, expired_events = ?, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE id = ? AND COALESCE(total_events, 0) = ? AND pending_events = ? AND active_events = ? AND completed_events = ? " +
+        "AND rejected_events = ? AND expired_events = ?");
+
+    // Stored value is the organization's base column plus its striped slot deltas. The repair adds
+    // the drift to the base instead of overwriting it, so slot bumps committed meanwhile are kept.
+    private static final Target ORG_REACH = new Target("org_reach_slots", "organizations",
+        new String[] {"volunteers_reached", "vp_distributed"},
+        "SELECT o.id, COALESCE(o.volunteers_reached, 0) + COALESCE(sl.reached, 0), COALESCE(rg.reached, 0), " +
+        "COALESCE(o.vp_distributed, 0) + COALESCE(sl.vp, 0), COALESCE(rg.vp, 0) " +
+        "FROM organizations o LEFT JOIN (" +
+        "  SELECT s.org_id, SUM(s.volunteers_reached) AS reached, SUM(s.vp_distributed) AS vp FROM org_reach_slots s " +
+        "  WHERE s.org_id >= ? AND s.org_id < ? GROUP BY s.org_id" +
+        ") sl ON sl.org_id = o.id LEFT JOIN (" +
+        "  SELECT e.organizer_id, COUNT(*) FILTER (WHERE r.status = 'registered') AS reached, " +
+        "  SUM(COALESCE(r.points_awarded, 0)) AS vp " +
+        "  FROM events e JOIN event_registrations r ON r.event_id = e.id " +
+        "  WHERE e.organizer_id >= ? AND e.organizer_id < ? GROUP BY e.organizer_id" +
+        ") rg ON rg.organizer_id = o.id " +
+        "WHERE o.id >= ? AND o.id < ? AND (COALESCE(o.volunteers_reached, 0) + COALESCE(sl.reached, 0) <> COALESCE(rg.reached, 0) " +
+        "OR COALESCE(o.vp_distributed, 0) + COALESCE(sl.vp, 0) <> COALESCE(rg.vp, 0))",
+        3,
+        "UPDATE organizations o SET volunteers_reached = COALESCE(o.volunteers_reached, 0) + v.actual_reached - v.stored_reached, " +
+        "vp_distributed = COALESCE(o.vp_distributed, 0) + v.actual_vp - v.stored_vp, updated_at = CURRENT_TIMESTAMP " +
+        "FROM (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+        "AS v(actual_reached, actual_vp, id, stored_reached, stored_vp) WHERE o.id = v.id");
+
+    private static final List<Target> TARGETS = List.of(USERS, EVENTS, ORGANIZATIONS, ORG_REACH);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private DimensionalLeaderboardService dimensionalLeaderboardService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Value("${app.reconcile.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.reconcile.repair-on-schedule:false}")
+    private boolean repairOnSchedule;
+
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReport lastReport;
+
+    // Every worker holds a pooled connection for its chunk, so the job never takes more than half the pool
+    public CounterReconciliationService(@Value("${app.reconcile.threads:2}") int threads,
+                                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int poolSize = Math.max(1, Math.min(threads, connectionPoolSize / 2));
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "reconcile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Nightly run; report only unless app.reconcile.repair-on-schedule is set
+    @Scheduled(cron = "${app.reconcile.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        try {
+            ReconciliationReport report = reconcile(repairOnSchedule);
+            log.info("Counter reconciliation finished in {} ms: drifted {}, repaired {}",
+                report.durationMs(), report.driftedRows(), report.repairedRows());
+        } catch (IllegalStateException e) {
+            log.warn(e.getMessage());
+        }
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Scans all counter-owning tables and returns what drifted. With repair
+     * set, drifted rows are corrected and the in-memory leaderboards reloaded.
+     * Only one run is allowed at a time.
+     */
+    public ReconciliationReport reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Counter reconciliation is already running");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            Accumulator acc = new Accumulator();
+
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Target target : TARGETS) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + target.idTable(), Long.class);
+                if (maxId == null) {
+                    continue;
+                }
+                int step = Math.max(1, chunkSize);
+                for (long lo = 0; lo <= maxId; lo += step) {
+                    long from = lo;
+                    long to = lo + step;
+                    tasks.add(() -> {
+                        runChunk(target, from, to, repair, acc);
+                        return null;
+                    });
+                }
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+
+            // Repaired rows may sit in the entity cache with their old counters
+            if (repair && !acc.repairedRows.isEmpty()) {
+                entityCacheService.clear();
+            }
+            if (repair && acc.repaired(USERS.table()) > 0) {
+                leaderboardService.load();
+                dimensionalLeaderboardService.load();
+            }
+
+            ReconciliationReport report = new ReconciliationReport(repair, startedAt,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), tasks.size(),
+                acc.driftedRows, acc.repairedRows, acc.driftByCounter, acc.samples);
+            lastReport = report;
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Counter reconciliation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Counter reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runChunk(Target target, long lo, long hi, boolean repair, Accumulator acc) {
+        Object[] params = new Object[target.rangeParams() * 2];
+        for (int i = 0; i < params.length; i += 2) {
+            params[i] = lo;
+            params[i + 1] = hi;
+        }
+
+        int width = target.counters().length;
+        List<Object[]> fixes = new ArrayList<>();
+        jdbcTemplate.query(target.driftSql(), rs -> {
+            long id = rs.getLong(1);
+            Object[] fix = new Object[width * 2 + 1];
+            for (int c = 0; c < width; c++) {
+                long stored = rs.getLong(2 + c * 2);
+                long actual = rs.getLong(3 + c * 2);
+                if (stored != actual) {
+                    acc.drift(new Drift(target.table(), id, target.counters()[c], stored, actual));
+                }
+                fix[c] = actual;
+                fix[width + 1 + c] = stored;
+            }
+            fix[width] = id;
+            fixes.add(fix);
+        }, params);
+
+        if (fixes.isEmpty()) {
+            return;
+        }
+        acc.add(acc.driftedRows, target.table(), fixes.size());
+        if (repair) {
+            int repaired = 0;
+            for (int count : jdbcTemplate.batchUpdate(target.repairSql(), fixes)) {
+                if (count > 0) {
+                    repaired++;
+                }
+            }
+            acc.add(acc.repairedRows, target.table(), repaired);
+        }
+    }
+
+    // Shared by the chunk workers; sample list is capped so memory stays bounded
+    private static class Accumulator {
+        final Map<String, Long> driftedRows = new LinkedHashMap<>();
+        final Map<String, Long> repairedRows = new LinkedHashMap<>();
+        final Map<String, Long> driftByCounter = new LinkedHashMap<>();
+        final List<Drift> samples = new ArrayList<>();
+
+        synchronized void add(Map<String, Long> totals, String key, long count) {
+            totals.merge(key, count, Long::sum);
+        }
+
+        synchronized void drift(Drift drift) {
+            driftByCounter.merge(drift.table() + "." + drift.counter(), 1L, Long::sum);
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(drift);
+            }
+        }
+
+        synchronized long repaired(String table) {
+            return repairedRows.getOrDefault(table, 0L);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
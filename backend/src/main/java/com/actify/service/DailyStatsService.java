@@ -0,0 +1,94 @@
+package com.actify.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily registrations, attendance and points for charts, per organization and
+ * platform-wide. The rollup tables are maintained by a trigger on
+ * event_registrations (see 17_daily_stats_rollups.sql), so a range is read
+ * from a few rows per day and days without activity are filled in with zeros
+ * here.
+ */
+@Service
+public class DailyStatsService {
+
+    public static final int MAX_RANGE_DAYS = 731;
+
+    public record DailyPoint(LocalDate day, long registrations, long attended, long pointsAwarded) {}
+
+    // Rows are striped over slots; each day is the sum of its slots
+    private static final String ORG_SERIES =
+        "SELECT day, SUM(registrations), SUM(attended), SUM(points_awarded) FROM org_daily_stats " +
+        "WHERE org_id = ? AND day >= ? AND day <= ? GROUP BY day ORDER BY day";
+
+    private static final String PLATFORM_SERIES =
+        "SELECT day, SUM(registrations), SUM(attended), SUM(points_awarded) FROM platform_daily_stats " +
+        "WHERE day >= ? AND day <= ? GROUP BY day ORDER BY day";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<DailyPoint> orgSeries(Long orgId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return fill(query(ORG_SERIES, orgId, Date.valueOf(from), Date.valueOf(to)), from, to);
+    }
+
+    public List<DailyPoint> platformSeries(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return fill(query(PLATFORM_SERIES, Date.valueOf(from), Date.valueOf(to)), from, to);
+    }
+
+    // Totals over the series, for the chart header
+    public static Map<String, Object> totals(List<DailyPoint> series) {
+        long registrations = 0;
+        long attended = 0;
+        long points = 0;
+        for (DailyPoint point : series) {
+            registrations += point.registrations();
+            attended += point.attended();
+            points += point.pointsAwarded();
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("registrations", registrations);
+        totals.put("attended", attended);
+        totals.put("pointsAwarded", points);
+        return totals;
+    }
+
+    private Map<LocalDate, DailyPoint> query(String sql, Object... params) {
+        Map<LocalDate, DailyPoint> byDay = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            LocalDate day = rs.getDate(1).toLocalDate();
+            byDay.put(day, new DailyPoint(day, rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+        }, params);
+        return byDay;
+    }
+
+    private static List<DailyPoint> fill(Map<LocalDate, DailyPoint> byDay, LocalDate from, LocalDate to) {
+        List<DailyPoint> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.add(byDay.getOrDefault(day, new DailyPoint(day, 0, 0, 0)));
+        }
+        return series;
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.actify.service;
+
+import com.actify.repository.EventRegistrationRepository;
+import com.actify.service.LeaderboardService.RankedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weekly, monthly, per-city and per-cause leaderboards. Each board is a
+ * {@link RankIndex}, so reads never scan event registrations. Time and cause
+ * boards are fed with point deltas as they are awarded; time boards are kept
+ * in sorted buckets and old buckets are dropped wholesale once they fall out
+ * of the retention window.
+ *
+ * City boards rank users by their lifetime total on the board of their
+ * current city. They are set from users' committed totals by
+ * {@link LeaderboardService} rather than built from deltas, so a user who
+ * moves is taken off the old city's board on the next refresh.
+ */
+@Service
+public class DimensionalLeaderboardService {
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Value("${app.leaderboard.weeks-retained:8}")
+    private int weeksRetained;
+
+    @Value("${app.leaderboard.months-retained:12}")
+    private int monthsRetained;
+
+    // Bucket keys ("2026-W07", "2026-02") sort chronologically
+    private final TreeMap<String, RankIndex> weekly = new TreeMap<>();
+    private final TreeMap<String, RankIndex> monthly = new TreeMap<>();
+    private final Map<String, RankIndex> byCity = new HashMap<>();
+    private final Map<String, RankIndex> byCause = new HashMap<>();
+    // Board each user is currently on
+    private final Map<Long, String> cityOf = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime since = oldestRetainedStart(today);
+
+        List<Object[]> causeTotals = eventRegistrationRepository.sumAwardedPointsByUserAndCause();
+        List<Object[]> recentAwards = eventRegistrationRepository.findAwardsSince(since);
+
+        lock.writeLock().lock();
+        try {
+            weekly.clear();
+            monthly.clear();
+            byCause.clear();
+
+            for (Object[] row : causeTotals) {
+                String cause = normalize((String) row[1]);
+                if (cause != null) {
+                    byCause.computeIfAbsent(cause, k -> new RankIndex()).add(((Number) row[0]).longValue(), ((Number) row[2]).longValue());
+                }
+            }
+            for (Object[] row : recentAwards) {
+                LocalDateTime awardedAt = (LocalDateTime) row[2];
+                if (awardedAt != null) {
+                    applyTimeBuckets(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), awardedAt.toLocalDate(), today);
+                }
+            }
+            expire(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rows of id, points, city; replaces every city board
+    public void loadCityBoards(List<Object[]> totals) {
+        lock.writeLock().lock();
+        try {
+            byCity.clear();
+            cityOf.clear();
+            for (Object[] row : totals) {
+                long total = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+                placeInCity(((Number) row[0]).longValue(), (String) row[2], total);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the user on their current city's board with the given lifetime
+     * total, and takes them off the board of a previous city.
+     */
+    public void updateCityTotal(Long userId, String city, long total) {
+        lock.writeLock().lock();
+        try {
+            String previous = cityOf.remove(userId);
+            if (previous != null) {
+                RankIndex board = byCity.get(previous);
+                if (board != null) {
+                    board.remove(userId);
+                    if (board.size() == 0) {
+                        byCity.remove(previous);
+                    }
+                }
+            }
+            placeInCity(userId, city, total);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a point delta to the cause and time boards the award belongs
+     * to. The award time decides the weekly/monthly bucket, so a later revoke
+     * or adjustment should pass the original award time.
+     */
+    public void recordAward(Long userId, String cause, int delta, LocalDateTime awardedAt) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            expire(today);
+            String causeKey = normalize(cause);
+            if (causeKey != null) {
+                addTo(byCause, causeKey, userId, delta);
+            }
+            applyTimeBuckets(userId, delta, awardedAt != null ? awardedAt.toLocalDate() : today, today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<RankedUser> topWeekly(String week, int limit) {
+        return top(weekly, week != null ? week : weekKey(LocalDate.now()), limit);
+    }
+
+    public List<RankedUser> topMonthly(String month, int limit) {
+        return top(monthly, month != null ? month : monthKey(LocalDate.now()), limit);
+    }
+
+    public List<RankedUser> topByCity(String city, int limit) {
+        return top(byCity, normalize(city), limit);
+    }
+
+    public List<RankedUser> topByCause(String cause, int limit) {
+        return top(byCause, normalize(cause), limit);
+    }
+
+    public static String weekKey(LocalDate date) {
+        return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    public static String monthKey(LocalDate date) {
+        return YearMonth.from(date).toString();
+    }
+
+    private List<RankedUser> top(Map<String, RankIndex> boards, String key, int limit) {
+        List<RankedUser> result = new ArrayList<>();
+        if (key == null || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            RankIndex board = boards.get(key);
+            if (board == null) {
+                return result;
+            }
+            int capacity = Math.min(limit, board.size());
+            long[] ids = new long[capacity];
+            long[] points = new long[capacity];
+            int count = board.slice(0, capacity, ids, points);
+            for (int i = 0; i < count; i++) {
+                result.add(new RankedUser(ids[i], points[i], i + 1));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only users with points are ranked. Caller holds the write lock
+    private void placeInCity(long userId, String city, long total) {
+        String key = normalize(city);
+        if (key != null && total > 0) {
+            byCity.computeIfAbsent(key, k -> new RankIndex()).put(userId, total);
+            cityOf.put(userId, key);
+        }
+    }
+
+    // Awards that fall before a board's retention window are ignored for that board
+    private void applyTimeBuckets(long userId, long delta, LocalDate day, LocalDate today) {
+        String week = weekKey(day);
+        if (week.compareTo(oldestWeek(today)) >= 0) {
+            addTo(weekly, week, userId, delta);
+        }
+        String month = monthKey(day);
+        if (month.compareTo(oldestMonth(today)) >= 0) {
+            addTo(monthly, month, userId, delta);
+        }
+    }
+
+    private static void addTo(Map<String, RankIndex> boards, String key, long userId, long delta) {
+        RankIndex board = boards.computeIfAbsent(key, k -> new RankIndex());
+        if (board.add(userId, delta) <= 0) {
+            board.remove(userId);
+        }
+    }
+
+    // Dropping a bucket is a single map removal, no per-user work
+    private void expire(LocalDate today) {
+        weekly.headMap(oldestWeek(today)).clear();
+        monthly.headMap(oldestMonth(today)).clear();
+    }
+
+    private String oldestWeek(LocalDate today) {
+        return weekKey(today.minusWeeks(weeksRetained - 1L));
+    }
+
+    private String oldestMonth(LocalDate today) {
+        return monthKey(today.minusMonths(monthsRetained - 1L));
+    }
+
+    private LocalDateTime oldestRetainedStart(LocalDate today) {
+        LocalDate weekStart = today.minusWeeks(weeksRetained - 1L).with(DayOfWeek.MONDAY);
+        LocalDate monthStart = today.minusMonths(monthsRetained - 1L).withDayOfMonth(1);
+        return (weekStart.isBefore(monthStart) ? weekStart : monthStart).atStartOfDay();
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank() || "Not provided".equalsIgnoreCase(value.trim())) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
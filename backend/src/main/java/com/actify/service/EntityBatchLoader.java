@@ -0,0 +1,106 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.model.Organization;
+import com.actify.model.User;
+import com.actify.repository.EventRepository;
+import com.actify.repository.OrganizationRepository;
+import com.actify.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Per-request loader for the users, events and organizations referenced by a
+ * list of rows. Callers hand over all the ids first and get back a map, which
+ * costs one IN query per entity type instead of one lookup per row; anything
+ * already loaded during the request is served from memory.
+ */
+@Component
+@RequestScope
+public class EntityBatchLoader {
+
+    // Keeps each IN list well below the driver's bind parameter limit
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private final Memo<User> users = new Memo<>(User::getId);
+    private final Memo<Event> events = new Memo<>(Event::getId);
+    private final Memo<Organization> organizations = new Memo<>(Organization::getId);
+
+    public Map<Long, User> users(Collection<Long> ids) {
+        return users.load(ids, userRepository::findAllById);
+    }
+
+    public Map<Long, Event> events(Collection<Long> ids) {
+        return events.load(ids, eventRepository::findAllById);
+    }
+
+    public Map<Long, Organization> organizations(Collection<Long> ids) {
+        return organizations.load(ids, organizationRepository::findAllById);
+    }
+
+    private static class Memo<T> {
+        private final Function<T, Long> idOf;
+        private final Map<Long, T> loaded = new HashMap<>();
+        // Ids already looked up and not found, so they are not queried again
+        private final Set<Long> missing = new HashSet<>();
+
+        Memo(Function<T, Long> idOf) {
+            this.idOf = idOf;
+        }
+
+        Map<Long, T> load(Collection<Long> ids, Function<List<Long>, List<T>> fetch) {
+            Set<Long> wanted = new LinkedHashSet<>();
+            for (Long id : ids) {
+                if (id != null) {
+                    wanted.add(id);
+                }
+            }
+            List<Long> toFetch = new ArrayList<>();
+            for (Long id : wanted) {
+                if (!loaded.containsKey(id) && !missing.contains(id)) {
+                    toFetch.add(id);
+                }
+            }
+            for (int from = 0; from < toFetch.size(); from += MAX_IDS_PER_QUERY) {
+                List<Long> chunk = toFetch.subList(from, Math.min(from + MAX_IDS_PER_QUERY, toFetch.size()));
+                for (T entity : fetch.apply(chunk)) {
+                    loaded.put(idOf.apply(entity), entity);
+                }
+                for (Long id : chunk) {
+                    if (!loaded.containsKey(id)) {
+                        missing.add(id);
+                    }
+                }
+            }
+
+            Map<Long, T> result = new HashMap<>();
+            for (Long id : wanted) {
+                T entity = loaded.get(id);
+                if (entity != null) {
+                    result.put(id, entity);
+                }
+            }
+            return result;
+        }
+    }
+}
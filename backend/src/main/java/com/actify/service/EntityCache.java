@@ -0,0 +1,135 @@
+package com.actify.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded read-through cache of entities by id. Capacity is measured in
+ * estimated bytes rather than entries, so a few users with large inline
+ * profile images cannot crowd out thousands of small ones; least recently
+ * used entries go first. Entries also expire after a fixed age as a safety
+ * net for writes that bypass the application.
+ *
+ * Values are shared between requests and must be treated as read-only.
+ */
+public class EntityCache<T> {
+
+    public record Stats(String name, long hits, long misses, long evictions, long invalidations,
+                        int entries, long bytes, long maxBytes, double hitRate) {}
+
+    private record Entry<T>(T value, long bytes, long loadedAt) {}
+
+    private final String name;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long ttlMillis;
+    private final ToLongFunction<T> sizer;
+
+    private final LinkedHashMap<Long, Entry<T>> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    // Bumped on every invalidation; a load that overlapped one is not stored
+    private long generation;
+
+    public EntityCache(String name, long maxBytes, long ttlMillis, ToLongFunction<T> sizer) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.max(1, maxBytes / 16);
+        this.ttlMillis = ttlMillis;
+        this.sizer = sizer;
+    }
+
+    public Optional<T> get(Long id, Function<Long, Optional<T>> loader) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.loadedAt() <= ttlMillis) {
+                    hits++;
+                    return Optional.of(entry.value());
+                }
+                remove(id);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Loaded outside the lock so a slow query does not block other readers
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> store(id, value, loadGeneration));
+        return loaded;
+    }
+
+    public synchronized void invalidate(Long id) {
+        generation++;
+        if (id != null && remove(id)) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll(Iterable<Long> ids) {
+        generation++;
+        for (Long id : ids) {
+            if (id != null && remove(id)) {
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        long lookups = hits + misses;
+        return new Stats(name, hits, misses, evictions, invalidations, entries.size(), bytes, maxBytes,
+            lookups == 0 ? 0 : Math.round(hits * 10000.0 / lookups) / 10000.0);
+    }
+
+    private synchronized void store(Long id, T value, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        long size = sizer.applyAsLong(value);
+        if (size > maxEntryBytes) {
+            return;
+        }
+        remove(id);
+        entries.put(id, new Entry<>(value, size, System.currentTimeMillis()));
+        bytes += size;
+
+        Iterator<Map.Entry<Long, Entry<T>>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean remove(Long id) {
+        Entry<T> removed = entries.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        bytes -= removed.bytes();
+        return true;
+    }
+
+    // Rough heap cost of a string field: header plus one byte per Latin-1 char
+    public static long sizeOf(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,100 @@
+package com.actify.service;
+
+import com.actify.model.Organization;
+import com.actify.model.User;
+import com.actify.repository.OrganizationRepository;
+import com.actify.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cached id lookups for users and organizations, the two entities nearly
+ * every authenticated request resolves. Use these only where the entity is
+ * read; code that modifies and saves an entity must load it from the
+ * repository and evict it here after saving.
+ */
+@Service
+public class EntityCacheService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private final EntityCache<User> users;
+    private final EntityCache<Organization> organizations;
+
+    public EntityCacheService(@Value("${app.cache.users.max-bytes:16777216}") long userBytes,
+                              @Value("${app.cache.organizations.max-bytes:4194304}") long organizationBytes,
+                              @Value("${app.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.users = new EntityCache<>("users", userBytes, ttlSeconds * 1000, EntityCacheService::sizeOf);
+        this.organizations = new EntityCache<>("organizations", organizationBytes, ttlSeconds * 1000, EntityCacheService::sizeOf);
+    }
+
+    public Optional<User> findUser(Long id) {
+        return users.get(id, userRepository::findById);
+    }
+
+    public Optional<Organization> findOrganization(Long id) {
+        return organizations.get(id, organizationRepository::findById);
+    }
+
+    // Evicts now and, inside a transaction, again after commit so a concurrent read cannot re-cache the old row
+    public void evictUser(Long id) {
+        afterCommitToo(() -> users.invalidate(id));
+    }
+
+    public void evictUsers(Iterable<Long> ids) {
+        afterCommitToo(() -> users.invalidateAll(ids));
+    }
+
+    public void evictOrganization(Long id) {
+        afterCommitToo(() -> organizations.invalidate(id));
+    }
+
+    public void clear() {
+        users.clear();
+        organizations.clear();
+    }
+
+    public List<EntityCache.Stats> stats() {
+        return List.of(users.stats(), organizations.stats());
+    }
+
+    private static void afterCommitToo(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static long sizeOf(User user) {
+        return 160 + EntityCache.sizeOf(user.getFirstName()) + EntityCache.sizeOf(user.getLastName())
+            + EntityCache.sizeOf(user.getEmail()) + EntityCache.sizeOf(user.getPassword())
+            + EntityCache.sizeOf(user.getPhone()) + EntityCache.sizeOf(user.getCountry())
+            + EntityCache.sizeOf(user.getCity()) + EntityCache.sizeOf(user.getNeighborhood())
+            + EntityCache.sizeOf(user.getInterests()) + EntityCache.sizeOf(user.getUserType())
+            + EntityCache.sizeOf(user.getProfileImage());
+    }
+
+    private static long sizeOf(Organization org) {
+        return 160 + EntityCache.sizeOf(org.getName()) + EntityCache.sizeOf(org.getEmail())
+            + EntityCache.sizeOf(org.getPassword()) + EntityCache.sizeOf(org.getOrgType())
+            + EntityCache.sizeOf(org.getDescription()) + EntityCache.sizeOf(org.getWebsite())
+            + EntityCache.sizeOf(org.getContactName()) + EntityCache.sizeOf(org.getPhone())
+            + EntityCache.sizeOf(org.getAddress()) + EntityCache.sizeOf(org.getCity())
+            + EntityCache.sizeOf(org.getState()) + EntityCache.sizeOf(org.getLogoUrl());
+    }
+}
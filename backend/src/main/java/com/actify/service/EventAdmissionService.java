@@ -0,0 +1,261 @@
+package com.actify.service;
+
+import com.actify.service.RegistrationService.RegistrationResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission layer in front of event sign-ups. Each event gets its own bounded
+ * queue drained by at most one writer at a time, which registers everything
+ * it takes off the queue in one transaction (group commit). A sign-up spike
+ * on one event therefore costs one database connection and one row lock per
+ * batch instead of one per request, and a full queue only rejects requests
+ * for that event. Writers yield after every batch so busy events share the
+ * pool with quiet ones. A batch rejected by a constraint is split and retried
+ * until only the offending sign-ups fail.
+ */
+@Service
+public class EventAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventAdmissionService.class);
+
+    // Finished admissions are kept this long for polling
+    private static final long RETENTION_MINUTES = 10;
+    // Lanes with nothing queued for this long are dropped
+    private static final long IDLE_LANE_MINUTES = 10;
+
+    public static class Admission {
+        private final String id = UUID.randomUUID().toString();
+        private final Long userId;
+        private final Long eventId;
+        private final Lane lane;
+        private final long ticket;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final CompletableFuture<RegistrationResult> result = new CompletableFuture<>();
+        private volatile LocalDateTime finishedAt;
+
+        Admission(Long userId, Long eventId, Lane lane) {
+            this.userId = userId;
+            this.eventId = eventId;
+            this.lane = lane;
+            this.ticket = lane.issued.incrementAndGet();
+        }
+
+        public String getId() { return id; }
+        public Long getUserId() { return userId; }
+        public Long getEventId() { return eventId; }
+        public CompletableFuture<RegistrationResult> getResult() { return result; }
+    }
+
+    private static class Lane {
+        private final BlockingQueue<Admission> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private volatile long lastActive = System.currentTimeMillis();
+
+        Lane(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Value("${app.admission.batch-size:200}")
+    private int batchSize;
+
+    // How long a request waits for its batch before answering with a queue position
+    @Value("${app.admission.wait-millis:2000}")
+    private long waitMillis;
+
+    private final int queueCapacity;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Admission> admissions = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    public EventAdmissionService(@Value("${app.admission.writer-threads:4}") int threads,
+                                 @Value("${app.admission.queue-capacity-per-event:2000}") int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        // Unbounded task queue is fine: there is at most one pending drain per event
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "event-admission");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues a sign-up and returns immediately. Throws
+     * RejectedExecutionException when the event's queue is full.
+     */
+    public Admission submit(Long userId, Long eventId) {
+        evictFinished();
+        Lane lane = lanes.computeIfAbsent(eventId, id -> new Lane(queueCapacity));
+        Admission admission = new Admission(userId, eventId, lane);
+        if (!lane.queue.offer(admission)) {
+            throw new RejectedExecutionException("Admission queue for event " + eventId + " is full");
+        }
+        lane.lastActive = System.currentTimeMillis();
+        admissions.put(admission.id, admission);
+        schedule(lane);
+        return admission;
+    }
+
+    public Admission getAdmission(String admissionId) {
+        return admissions.get(admissionId);
+    }
+
+    // Sign-ups ahead of this one that have not been processed yet, counting itself
+    public long position(Admission admission) {
+        if (admission.result.isDone()) {
+            return 0;
+        }
+        return Math.max(1, admission.ticket - admission.lane.processed.get());
+    }
+
+    /**
+     * Waits up to the configured time for the sign-up to be processed.
+     * Empty means it is still queued; a failed batch is rethrown.
+     */
+    public Optional<RegistrationResult> await(Admission admission) throws InterruptedException {
+        try {
+            return Optional.of(admission.result.get(waitMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public Map<String, Object> toMap(Admission admission) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("admissionId", admission.id);
+        map.put("eventId", admission.eventId);
+        map.put("createdAt", admission.createdAt);
+        if (!admission.result.isDone()) {
+            map.put("status", "pending");
+            map.put("position", position(admission));
+        } else if (admission.result.isCompletedExceptionally()) {
+            map.put("status", "failed");
+            map.put("finishedAt", admission.finishedAt);
+        } else {
+            RegistrationResult result = admission.result.join();
+            map.put("status", result.outcome().name().toLowerCase());
+            if (result.position() > 0) {
+                map.put("waitlistPosition", result.position());
+            }
+            map.put("finishedAt", admission.finishedAt);
+        }
+        return map;
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(lane));
+        }
+    }
+
+    // One batch per turn, then back of the line so other events get a writer too
+    private void drain(Lane lane) {
+        List<Admission> batch = new ArrayList<>();
+        lane.queue.drainTo(batch, Math.max(1, batchSize));
+        if (!batch.isEmpty()) {
+            process(batch);
+            lane.processed.addAndGet(batch.size());
+            lane.lastActive = System.currentTimeMillis();
+        }
+        if (!lane.queue.isEmpty()) {
+            executor.execute(() -> drain(lane));
+            return;
+        }
+        lane.draining.set(false);
+        // An offer that raced with the release above must not be stranded
+        if (!lane.queue.isEmpty()) {
+            schedule(lane);
+        }
+    }
+
+    private void process(List<Admission> batch) {
+        Long eventId = batch.get(0).eventId;
+        List<Long> userIds = new ArrayList<>(batch.size());
+        for (Admission admission : batch) {
+            userIds.add(admission.userId);
+        }
+        try {
+            List<RegistrationResult> results = registrationService.registerBatch(eventId, userIds);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).finishedAt = now;
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A bad row (e.g. a user deleted while queued) rolls back the whole batch; retry the halves
+            // so only that sign-up fails. Nothing was committed, so retrying is safe.
+            if (batch.size() > 1) {
+                process(batch.subList(0, batch.size() / 2));
+                process(batch.subList(batch.size() / 2, batch.size()));
+                return;
+            }
+            fail(batch, e);
+        } catch (Exception e) {
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<Admission> batch, Exception e) {
+        log.error("Admission batch of {} for event {} failed", batch.size(), batch.get(0).eventId, e);
+        LocalDateTime now = LocalDateTime.now();
+        for (Admission admission : batch) {
+            admission.finishedAt = now;
+            admission.result.completeExceptionally(e);
+        }
+    }
+
+    // A lane dropped while a late submit still holds it is harmless: that submit drains its own lane
+    private void evictFinished() {
+        long now = System.currentTimeMillis();
+        long last = lastSweep.get();
+        // At most one sweep a minute, so a spike does not rescan the map on every request
+        if (now - last < 60_000 || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        admissions.values().removeIf(admission -> admission.finishedAt != null && admission.finishedAt.isBefore(cutoff));
+        long idleCutoff = now - TimeUnit.MINUTES.toMillis(IDLE_LANE_MINUTES);
+        lanes.values().removeIf(lane -> lane.lastActive < idleCutoff && lane.queue.isEmpty() && !lane.draining.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
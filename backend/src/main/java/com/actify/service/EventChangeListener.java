@@ -0,0 +1,15 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+
+/**
+ * Implemented by in-memory views over events (geo, search, recommendations).
+ * Called by {@link EventChangeNotifier} once a change is committed.
+ */
+public interface EventChangeListener {
+
+    // Event was created or any of its fields (including status) changed
+    void onEventSaved(Event event);
+
+    void onEventDeleted(Long eventId);
+}
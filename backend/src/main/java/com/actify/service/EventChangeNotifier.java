@@ -0,0 +1,55 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Fans event changes out to every {@link EventChangeListener}. Inside a
+ * transaction the listeners run after commit, so in-memory views never show
+ * a change that was rolled back.
+ */
+@Component
+public class EventChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(EventChangeNotifier.class);
+
+    @Autowired
+    private List<EventChangeListener> listeners;
+
+    public void eventSaved(Event event) {
+        dispatch(() -> listeners.forEach(listener -> notify(listener, () -> listener.onEventSaved(event))));
+    }
+
+    public void eventDeleted(Long eventId) {
+        dispatch(() -> listeners.forEach(listener -> notify(listener, () -> listener.onEventDeleted(eventId))));
+    }
+
+    private void dispatch(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // One failing view must not keep the others from updating
+    private static void notify(EventChangeListener listener, Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            log.error("Event change listener {} failed", listener.getClass().getSimpleName(), e);
+        }
+    }
+}
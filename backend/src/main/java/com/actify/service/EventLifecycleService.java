@@ -0,0 +1,98 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Moves events whose time has passed out of the active and pending states:
+ * active events that have ended become completed, pending events that were
+ * never approved before their start become expired.
+ *
+ * Each batch is one UPDATE over rows picked with FOR UPDATE SKIP LOCKED, so
+ * several nodes can run the job at once without touching the same event, and
+ * a run stops after a fixed number of batches; any remaining backlog is left
+ * for the next run.
+ */
+@Service
+public class EventLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLifecycleService.class);
+
+    private record Transition(String from, String to, String timeColumn) {}
+
+    private static final List<Transition> TRANSITIONS = List.of(
+        new Transition("active", "completed", "ends_at"),
+        new Transition("pending", "expired", "starts_at"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventChangeNotifier eventChangeNotifier;
+
+    @Value("${app.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.lifecycle.max-batches:20}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${app.lifecycle.interval-ms:300000}", initialDelayString = "${app.lifecycle.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        for (Transition transition : TRANSITIONS) {
+            try {
+                int moved = run(transition);
+                if (moved > 0) {
+                    log.info("Moved {} events from {} to {}", moved, transition.from(), transition.to());
+                }
+            } catch (Exception e) {
+                log.error("Event lifecycle transition {} -> {} failed", transition.from(), transition.to(), e);
+            }
+        }
+    }
+
+    // Returns how many events were moved; at most batchSize * maxBatches
+    private int run(Transition transition) {
+        String sql = "UPDATE events SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id IN (" +
+            "SELECT id FROM events WHERE status = ? AND " + transition.timeColumn() + " < CURRENT_TIMESTAMP " +
+            "ORDER BY " + transition.timeColumn() + " LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING id";
+        int moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            // Autocommitted on its own, so locks are held for one batch only
+            List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, transition.to(), transition.from(), batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            moved += ids.size();
+            afterTransition(ids);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    // Nobody can be promoted into a finished event, and the in-memory indexes drop it
+    private void afterTransition(List<Long> ids) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM event_waitlist WHERE event_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+        for (Event event : eventRepository.findAllById(ids)) {
+            eventChangeNotifier.eventSaved(event);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.model.User;
+import com.actify.repository.EventRegistrationRepository;
+import com.actify.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed features of active events (cause, skills, city) with an
+ * inverted index from each feature to the events that have it. A user's
+ * interests, city and past registrations are turned into a handful of
+ * weighted features, and only the events posted under those features are
+ * scored, so a top-k query never looks at unrelated events. Events are added
+ * and removed one at a time as they change.
+ */
+@Service
+public class EventRecommendationIndex implements EventChangeListener {
+
+    public record Recommendation(long eventId, double score, List<String> reasons) {}
+
+    private record Features(Set<String> causeTerms, Set<String> skillTerms, String city) {}
+
+    // An interest naming the event's cause counts most, then being local, then past behaviour
+    private static final double INTEREST_CAUSE_WEIGHT = 3.0;
+    private static final double INTEREST_SKILL_WEIGHT = 1.0;
+    private static final double CITY_WEIGHT = 2.0;
+    private static final double HISTORY_WEIGHT = 2.0;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "for", "in", "of", "the", "to", "with");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    private final Map<Long, Features> features = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Event> events = eventRepository.findByStatus("active");
+        lock.writeLock().lock();
+        try {
+            features.clear();
+            postings.clear();
+            for (Event event : events) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventSaved(Event event) {
+        if (event.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.getId());
+            if ("active".equals(event.getStatus())) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventDeleted(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            remove(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return features.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best-matching active events for the user, excluding events they are
+     * already registered for. Past registrations (including completed events)
+     * weigh each cause by the share of the user's sign-ups it accounts for.
+     */
+    public List<Recommendation> recommend(User user, int limit) {
+        Set<String> interests = new LinkedHashSet<>(terms(user.getInterests()));
+        String city = normalizeCity(user.getCity());
+
+        Set<Long> registered = new HashSet<>();
+        Map<String, Double> history = new HashMap<>();
+        List<Object[]> rows = eventRegistrationRepository.findRegisteredEventCauses(user.getId());
+        for (Object[] row : rows) {
+            registered.add(((Number) row[0]).longValue());
+            for (String term : terms((String) row[1])) {
+                history.merge(term, HISTORY_WEIGHT / rows.size(), Double::sum);
+            }
+        }
+
+        List<Recommendation> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : interests) {
+                accumulate(scores, "cause:" + term, INTEREST_CAUSE_WEIGHT);
+                accumulate(scores, "skill:" + term, INTEREST_SKILL_WEIGHT);
+            }
+            if (city != null) {
+                accumulate(scores, "city:" + city, CITY_WEIGHT);
+            }
+            for (Map.Entry<String, Double> entry : history.entrySet()) {
+                accumulate(scores, "cause:" + entry.getKey(), entry.getValue());
+            }
+            scores.keySet().removeAll(registered);
+
+            // Keep only the best `limit` candidates
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<Long, Double> entry : ranked) {
+                Features event = features.get(entry.getKey());
+                result.add(new Recommendation(entry.getKey(), entry.getValue(), reasons(event, interests, city, history)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Map<Long, Double> scores, String feature, double weight) {
+        Set<Long> events = postings.get(feature);
+        if (events != null) {
+            for (Long id : events) {
+                scores.merge(id, weight, Double::sum);
+            }
+        }
+    }
+
+    private static List<String> reasons(Features event, Set<String> interests, String city, Map<String, Double> history) {
+        List<String> reasons = new ArrayList<>();
+        if (event.causeTerms().stream().anyMatch(interests::contains)) {
+            reasons.add("Matches your interests");
+        } else if (event.skillTerms().stream().anyMatch(interests::contains)) {
+            reasons.add("Uses skills you are interested in");
+        }
+        if (city != null && city.equals(event.city())) {
+            reasons.add("In your city");
+        }
+        if (event.causeTerms().stream().anyMatch(history::containsKey)) {
+            reasons.add("Similar to events you joined");
+        }
+        return reasons;
+    }
+
+    private void add(Event event) {
+        Features entry = new Features(new HashSet<>(terms(event.getCause())), new HashSet<>(terms(event.getSkillsNeeded())),
+            normalizeCity(event.getCity()));
+        long id = event.getId();
+        for (String term : entry.causeTerms()) {
+            postings.computeIfAbsent("cause:" + term, k -> new HashSet<>()).add(id);
+        }
+        for (String term : entry.skillTerms()) {
+            postings.computeIfAbsent("skill:" + term, k -> new HashSet<>()).add(id);
+        }
+        if (entry.city() != null) {
+            postings.computeIfAbsent("city:" + entry.city(), k -> new HashSet<>()).add(id);
+        }
+        features.put(id, entry);
+    }
+
+    private void remove(long id) {
+        Features entry = features.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.causeTerms()) {
+            unpost("cause:" + term, id);
+        }
+        for (String term : entry.skillTerms()) {
+            unpost("skill:" + term, id);
+        }
+        if (entry.city() != null) {
+            unpost("city:" + entry.city(), id);
+        }
+    }
+
+    private void unpost(String feature, long id) {
+        Set<Long> events = postings.get(feature);
+        if (events != null) {
+            events.remove(id);
+            if (events.isEmpty()) {
+                postings.remove(feature);
+            }
+        }
+    }
+
+    // "Community Service, Disaster Relief" and "disaster-relief" both become lowercase words
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalizeCity(String city) {
+        return city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,287 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the title, description, skills and requirements of
+ * active events. Documents are added, replaced and removed one at a time as
+ * events change, so the index never needs a rebuild. Results are ranked with
+ * BM25 over field-weighted term frequencies and come with highlighted
+ * snippets.
+ */
+@Service
+public class EventTextIndex implements EventChangeListener {
+
+    public record TextHit(long eventId, double score, Map<String, String> highlights) {}
+
+    private record Field(String name, double weight) {}
+
+    private record Doc(Map<String, Double> termWeights, double length, Map<String, String> texts) {}
+
+    // Title matches count most, then skills, then the longer free-text fields
+    private static final List<Field> FIELDS = List.of(
+        new Field("title", 3.0), new Field("skillsNeeded", 2.0),
+        new Field("description", 1.0), new Field("requirements", 1.0));
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_CHARS = 160;
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "our", "the", "to", "us", "we", "with", "you", "your");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+    private double totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Event> events = eventRepository.findByStatus("active");
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            totalLength = 0;
+            for (Event event : events) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventSaved(Event event) {
+        if (event.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.getId());
+            if ("active".equals(event.getStatus())) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventDeleted(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            remove(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best-scoring events for the query, any term matching, highest score first. */
+    public List<TextHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        List<TextHit> result = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            double avgLength = n > 0 ? totalLength / n : 1;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Double> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Double> entry : posting.entrySet()) {
+                    double tf = entry.getValue();
+                    double norm = tf + K1 * (1 - B + B * docs.get(entry.getKey()).length() / avgLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            // Keep only the best `limit` candidates; the head is the worst by the final order below
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(
+                Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<Long, Double> entry : ranked) {
+                result.add(new TextHit(entry.getKey(), entry.getValue(), highlight(docs.get(entry.getKey()), terms)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Event event) {
+        Map<String, Double> termWeights = new HashMap<>();
+        Map<String, String> texts = new LinkedHashMap<>();
+        double length = 0;
+        for (Field field : FIELDS) {
+            String text = fieldText(event, field.name());
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            texts.put(field.name(), text);
+            for (String term : tokenize(text)) {
+                termWeights.merge(term, field.weight(), Double::sum);
+                length += field.weight();
+            }
+        }
+        long id = event.getId();
+        for (Map.Entry<String, Double> entry : termWeights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+        }
+        docs.put(id, new Doc(termWeights, length, texts));
+        totalLength += length;
+    }
+
+    // Only the document's own terms are touched
+    private void remove(long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.termWeights().keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= doc.length();
+    }
+
+    private static String fieldText(Event event, String field) {
+        return switch (field) {
+            case "title" -> event.getTitle();
+            case "skillsNeeded" -> event.getSkillsNeeded();
+            case "description" -> event.getDescription();
+            case "requirements" -> event.getRequirements();
+            default -> null;
+        };
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Lowercase plus a light plural strip, so "trees" finds "tree"
+    private static String normalize(String token) {
+        String term = token.toLowerCase(Locale.ROOT);
+        if (STOP_WORDS.contains(term)) {
+            return null;
+        }
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    // Title is returned whole; longer fields as a window around the first match
+    private static Map<String, String> highlight(Doc doc, Set<String> terms) {
+        Map<String, String> highlights = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : doc.texts().entrySet()) {
+            String text = field.getValue();
+            int first = -1;
+            Matcher matcher = TOKEN.matcher(text);
+            while (matcher.find()) {
+                if (terms.contains(normalize(matcher.group()))) {
+                    first = matcher.start();
+                    break;
+                }
+            }
+            if (first < 0) {
+                continue;
+            }
+            int start = 0;
+            int end = text.length();
+            if (!"title".equals(field.getKey()) && text.length() > SNIPPET_CHARS) {
+                start = Math.max(0, first - SNIPPET_CHARS / 4);
+                end = Math.min(text.length(), start + SNIPPET_CHARS);
+            }
+            highlights.put(field.getKey(), mark(text, start, end, terms));
+        }
+        return highlights;
+    }
+
+    private static String mark(String text, int start, int end, Set<String> terms) {
+        StringBuilder out = new StringBuilder();
+        if (start > 0) {
+            out.append("...");
+        }
+        Matcher matcher = TOKEN.matcher(text).region(start, end);
+        int last = start;
+        while (matcher.find()) {
+            if (terms.contains(normalize(matcher.group()))) {
+                out.append(escape(text.substring(last, matcher.start())))
+                    .append("<mark>").append(escape(matcher.group())).append("</mark>");
+                last = matcher.end();
+            }
+        }
+        out.append(escape(text.substring(last, end)));
+        if (end < text.length()) {
+            out.append("...");
+        }
+        return out.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,215 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over the locations of active events. The globe is cut
+ * into fixed-size lat/lng cells; a radius query only visits the cells that
+ * overlap the search circle and then filters by great-circle distance, and a
+ * nearest-k query widens the radius until it has k hits.
+ */
+@Service
+public class GeoEventIndex implements EventChangeListener {
+
+    public record GeoHit(long eventId, double distanceKm) {}
+
+    private record Point(double lat, double lng) {}
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+    // Roughly 11 km per cell at the equator
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LNG_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double MAX_RADIUS_KM = Math.PI * EARTH_RADIUS_KM;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final Map<Long, Point> points = new HashMap<>();
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = eventRepository.findActiveLocations();
+        lock.writeLock().lock();
+        try {
+            points.clear();
+            cells.clear();
+            for (Object[] row : rows) {
+                put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Only active events with coordinates are searchable
+    @Override
+    public void onEventSaved(Event event) {
+        if (event.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.getId());
+            if ("active".equals(event.getStatus()) && event.getLatitude() != null && event.getLongitude() != null) {
+                put(event.getId(), event.getLatitude(), event.getLongitude());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventDeleted(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            remove(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Events within radiusKm of the point, nearest first, at most limit of them. */
+    public List<GeoHit> within(double lat, double lng, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            List<GeoHit> hits = collect(lat, lng, Math.min(radiusKm, MAX_RADIUS_KM));
+            hits.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k events closest to the point. Any event outside a radius that
+     * already holds k hits is farther than all of them, so doubling the radius
+     * until that happens gives an exact answer.
+     */
+    public List<GeoHit> nearest(double lat, double lng, int k) {
+        lock.readLock().lock();
+        try {
+            double radius = 5;
+            List<GeoHit> hits = collect(lat, lng, radius);
+            while (hits.size() < k && hits.size() < points.size() && radius < MAX_RADIUS_KM) {
+                radius = Math.min(radius * 2, MAX_RADIUS_KM);
+                hits = collect(lat, lng, radius);
+            }
+            hits.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+            return hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<GeoHit> collect(double lat, double lng, double radiusKm) {
+        List<GeoHit> hits = new ArrayList<>();
+        int minLatCell = latCell(Math.max(-90, lat - radiusKm / KM_PER_DEGREE));
+        int maxLatCell = latCell(Math.min(90, lat + radiusKm / KM_PER_DEGREE));
+
+        // Longitude span widens towards the poles; past a pole every longitude is in range
+        double maxAbsLat = Math.max(Math.abs(minLatCell * CELL_DEGREES), Math.abs((maxLatCell + 1) * CELL_DEGREES));
+        double cos = Math.cos(Math.toRadians(Math.min(90, maxAbsLat)));
+        double lngSpan = cos > 1e-6 ? radiusKm / (KM_PER_DEGREE * cos) : 180;
+        int lngCellCount = lngSpan >= 180 ? LNG_CELLS : Math.min(LNG_CELLS, 2 * (int) Math.ceil(lngSpan / CELL_DEGREES) + 1);
+
+        // A wide search touches more cells than there are events; scan them directly
+        long cellCount = (long) (maxLatCell - minLatCell + 1) * lngCellCount;
+        if (cellCount > points.size()) {
+            for (Map.Entry<Long, Point> entry : points.entrySet()) {
+                addIfWithin(hits, entry.getKey(), entry.getValue(), lat, lng, radiusKm);
+            }
+            return hits;
+        }
+
+        int firstLngCell = lngCellCount == LNG_CELLS ? 0 : lngCell(lng) - lngCellCount / 2;
+        Set<Long> seen = new HashSet<>();
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int i = 0; i < lngCellCount; i++) {
+                Set<Long> ids = cells.get(cellKey(latCell, Math.floorMod(firstLngCell + i, LNG_CELLS)));
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    if (seen.add(id)) {
+                        addIfWithin(hits, id, points.get(id), lat, lng, radiusKm);
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static void addIfWithin(List<GeoHit> hits, long id, Point point, double lat, double lng, double radiusKm) {
+        double distance = distanceKm(lat, lng, point.lat(), point.lng());
+        if (distance <= radiusKm) {
+            hits.add(new GeoHit(id, distance));
+        }
+    }
+
+    private void put(long id, double lat, double lng) {
+        points.put(id, new Point(lat, lng));
+        cells.computeIfAbsent(cellKey(latCell(lat), lngCell(lng)), k -> new HashSet<>()).add(id);
+    }
+
+    private void remove(long id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(latCell(point.lat()), lngCell(point.lng()));
+        Set<Long> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static int latCell(double lat) {
+        return (int) Math.floor(lat / CELL_DEGREES);
+    }
+
+    private static int lngCell(double lng) {
+        return Math.floorMod((int) Math.floor(lng / CELL_DEGREES), LNG_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    // Haversine great-circle distance
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
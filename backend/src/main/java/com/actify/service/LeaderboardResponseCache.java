@@ -0,0 +1,81 @@
+package com.actify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the serialized top-N leaderboard responses together with a strong
+ * ETag. An entry stays valid for as long as {@link LeaderboardService#topVersion()}
+ * does not move, so repeated polls skip both the database and JSON rendering.
+ */
+@Component
+public class LeaderboardResponseCache {
+
+    public record Payload(long version, byte[] body, String etag) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Integer, Payload> payloads = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached payload for the limit if it was rendered at the given
+     * version, otherwise renders, stores and returns a fresh one. The version
+     * must be read before rendering so a concurrent change is never hidden.
+     */
+    public Payload get(int limit, long version, Supplier<Object> renderer) {
+        Payload cached = payloads.get(limit);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        byte[] body = serialize(renderer.get());
+        Payload fresh = new Payload(version, body, etagOf(body));
+        payloads.merge(limit, fresh, (current, candidate) -> current.version() > candidate.version() ? current : candidate);
+        return fresh;
+    }
+
+    public void clear() {
+        payloads.clear();
+    }
+
+    /** True if an If-None-Match header value matches the given strong ETag. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize leaderboard", e);
+        }
+    }
+
+    // Derived from the bytes themselves, so tags stay valid across restarts and nodes
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
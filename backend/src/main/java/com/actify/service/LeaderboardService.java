@@ -0,0 +1,214 @@
+package com.actify.service;
+
+import com.actify.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of all users by volunteer points. Loaded once at startup
+ * and kept current by the code paths that change points, so top-N and rank
+ * queries never hit the database.
+ *
+ * Changes are published by re-reading the committed totals rather than
+ * trusting a value read inside the writing transaction. Every read and the
+ * apply that follows happen under one mutex (the full load included), so a
+ * later refresh always applies a snapshot at least as new as an earlier one
+ * and the index ends up at the latest committed total whatever order the
+ * transactions publish in. The city boards take the same totals, in the
+ * same order.
+ */
+@Service
+public class LeaderboardService {
+
+    public record RankedUser(long userId, long points, int rank) {}
+
+    // Largest top-N the API serves; changes below this depth never bump the version
+    public static final int TRACKED_TOP = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DimensionalLeaderboardService dimensionalLeaderboardService;
+
+    private final RankIndex index = new RankIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Orders database reads with the updates they lead to; readers of the index never take it
+    private final Object refreshLock = new Object();
+    private final AtomicLong topVersion = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (refreshLock) {
+            List<Object[]> totals = userRepository.findAllPointTotals();
+            lock.writeLock().lock();
+            try {
+                index.clear();
+                for (Object[] row : totals) {
+                    index.put(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).longValue() : 0L);
+                }
+                topVersion.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            dimensionalLeaderboardService.loadCityBoards(totals);
+        }
+    }
+
+    /**
+     * Re-reads the committed point totals and cities of the given users and
+     * applies them here and to the city boards. Call after any committed
+     * change to a user's points or city.
+     */
+    public void refreshPoints(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            List<Object[]> totals = userRepository.findPointTotalsByIds(userIds);
+            Set<Long> missing = new HashSet<>(userIds);
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : totals) {
+                    long userId = ((Number) row[0]).longValue();
+                    missing.remove(userId);
+                    put(userId, row[1] != null ? ((Number) row[1]).longValue() : 0L);
+                }
+                // Deleted since the change
+                for (Long userId : missing) {
+                    if (touchesTop(index.rankOf(userId))) {
+                        topVersion.incrementAndGet();
+                    }
+                    index.remove(userId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Object[] row : totals) {
+                dimensionalLeaderboardService.updateCityTotal(((Number) row[0]).longValue(), (String) row[2],
+                    row[1] != null ? ((Number) row[1]).longValue() : 0L);
+            }
+            for (Long userId : missing) {
+                dimensionalLeaderboardService.updateCityTotal(userId, null, 0);
+            }
+        }
+    }
+
+    // Record a user's new point total
+    public void updatePoints(Long userId, Integer points) {
+        if (userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(userId, points != null ? points : 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void put(long userId, long score) {
+        Long previous = index.scoreOf(userId);
+        if (previous != null && previous == score) {
+            return;
+        }
+        int oldRank = index.rankOf(userId);
+        index.put(userId, score);
+        if (touchesTop(oldRank) || touchesTop(index.rankOf(userId))) {
+            topVersion.incrementAndGet();
+        }
+    }
+
+    public void removeUser(Long userId) {
+        lock.writeLock().lock();
+        try {
+            if (touchesTop(index.rankOf(userId))) {
+                topVersion.incrementAndGet();
+            }
+            index.remove(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes whenever the first {@link #TRACKED_TOP} entries change (membership,
+     * order or points). Moves further down the ranking leave it untouched, so
+     * cached top-N responses stay valid.
+     */
+    public long topVersion() {
+        return topVersion.get();
+    }
+
+    private static boolean touchesTop(int rank) {
+        return rank > 0 && rank <= TRACKED_TOP;
+    }
+
+    public List<RankedUser> top(int limit) {
+        return slice(0, limit);
+    }
+
+    // Entries starting at the given 0-based position
+    public List<RankedUser> slice(int offset, int limit) {
+        if (limit <= 0 || offset < 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int capacity = Math.min(limit, Math.max(0, index.size() - offset));
+            long[] ids = new long[capacity];
+            long[] points = new long[capacity];
+            int count = index.slice(offset, capacity, ids, points);
+            List<RankedUser> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new RankedUser(ids[i], points[i], offset + i + 1));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based rank of the user, or -1 if the user is unknown
+    public int rankOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            return index.rankOf(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RankedUser entryOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Long points = index.scoreOf(userId);
+            if (points == null) {
+                return null;
+            }
+            return new RankedUser(userId, points, index.rankOf(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
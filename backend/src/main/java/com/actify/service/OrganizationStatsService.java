@@ -0,0 +1,48 @@
+package com.actify.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Organization dashboard counters. They are maintained by database triggers
+ * on events and event_registrations (see 16_organization_counters.sql), in
+ * the same transaction as every write, so a dashboard load reads the
+ * organizations row and its few org_reach_slots rows by primary key. Read
+ * straight from the tables rather than the entity cache, which would lag
+ * behind the triggers.
+ */
+@Service
+public class OrganizationStatsService {
+
+    // Reach and points are the row's base values plus the organization's striped slot deltas
+    private static final String SELECT_COUNTERS =
+        "SELECT o.total_events, o.pending_events, o.active_events, o.completed_events, o.rejected_events, o.expired_events, " +
+        "COALESCE(o.volunteers_reached, 0) + COALESCE(SUM(s.volunteers_reached), 0) AS volunteers_reached, " +
+        "COALESCE(o.vp_distributed, 0) + COALESCE(SUM(s.vp_distributed), 0) AS vp_distributed " +
+        "FROM organizations o LEFT JOIN org_reach_slots s ON s.org_id = o.id WHERE o.id = ? GROUP BY o.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<Map<String, Object>> counters(Long orgId) {
+        List<Map<String, Object>> rows = jdbcTemplate.query(SELECT_COUNTERS, (rs, rowNum) -> {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalEvents", rs.getInt("total_events"));
+            stats.put("pendingEvents", rs.getInt("pending_events"));
+            stats.put("activeEvents", rs.getInt("active_events"));
+            stats.put("completedEvents", rs.getInt("completed_events"));
+            stats.put("rejectedEvents", rs.getInt("rejected_events"));
+            stats.put("expiredEvents", rs.getInt("expired_events"));
+            stats.put("volunteersReached", rs.getLong("volunteers_reached"));
+            stats.put("vpDistributed", rs.getLong("vp_distributed"));
+            return stats;
+        }, orgId);
+        return rows.stream().findFirst();
+    }
+}
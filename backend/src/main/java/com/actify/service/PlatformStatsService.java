@@ -0,0 +1,54 @@
+package com.actify.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin dashboard totals. The platform_stats counters are maintained by
+ * database triggers on events and event_registrations (see
+ * 13_platform_stats.sql), in the same transaction as every write, so reading
+ * them is one small query however large the tables grow. Each counter is
+ * split over a few rows so concurrent writers rarely wait on each other.
+ */
+@Service
+public class PlatformStatsService {
+
+    private static final String EVENT_PREFIX = "events:";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> values = new HashMap<>();
+        // Counters are striped over a few slots each
+        jdbcTemplate.query("SELECT stat_key, SUM(value) FROM platform_stats GROUP BY stat_key",
+            rs -> { values.put(rs.getString(1), rs.getLong(2)); });
+
+        Map<String, Long> eventsByStatus = new LinkedHashMap<>();
+        long totalEvents = 0;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (entry.getKey().startsWith(EVENT_PREFIX)) {
+                eventsByStatus.put(entry.getKey().substring(EVENT_PREFIX.length()), entry.getValue());
+                totalEvents += entry.getValue();
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalEvents", totalEvents);
+        stats.put("pendingEvents", eventsByStatus.getOrDefault("pending", 0L));
+        stats.put("activeEvents", eventsByStatus.getOrDefault("active", 0L));
+        stats.put("rejectedEvents", eventsByStatus.getOrDefault("rejected", 0L));
+        stats.put("completedEvents", eventsByStatus.getOrDefault("completed", 0L));
+        stats.put("expiredEvents", eventsByStatus.getOrDefault("expired", 0L));
+        stats.put("eventsByStatus", eventsByStatus);
+        stats.put("totalPointsDistributed", values.getOrDefault("points_distributed", 0L));
+        stats.put("totalDistributions", values.getOrDefault("distributions", 0L));
+        stats.put("unreviewedDistributions", values.getOrDefault("unreviewed_distributions", 0L));
+        return stats;
+    }
+}
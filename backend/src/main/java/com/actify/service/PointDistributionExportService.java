@@ -0,0 +1,165 @@
+package com.actify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams point distributions to a CSV or NDJSON download. Rows are read
+ * through a server-side cursor and written out one at a time, so memory use
+ * does not depend on how many rows the export covers.
+ */
+@Service
+public class PointDistributionExportService {
+
+    // Filters shared by the paged list and the export; null means "any"
+    public record DistributionFilter(Long orgId, LocalDateTime from, LocalDateTime to, Boolean reviewed) {}
+
+    // Rows the driver holds in memory at a time
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT =
+        "SELECT er.id AS registration_id, er.user_id AS volunteer_id, " +
+        "CONCAT_WS(' ', u.first_name, u.last_name) AS volunteer_name, u.email AS volunteer_email, " +
+        "er.event_id, e.title AS event_title, e.date AS event_date, " +
+        "er.awarded_by_org_id AS organization_id, o.name AS organization_name, " +
+        "er.attendance_status, er.points_awarded, e.points_reward AS expected_points, er.points_awarded_at, " +
+        "COALESCE(er.admin_reviewed, FALSE) AS admin_reviewed, er.admin_reviewed_at, er.admin_notes " +
+        "FROM event_registrations er " +
+        "JOIN users u ON u.id = er.user_id " +
+        "JOIN events e ON e.id = er.event_id " +
+        "LEFT JOIN organizations o ON o.id = er.awarded_by_org_id " +
+        "WHERE er.points_awarded > 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void writeCsv(DistributionFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        stream(filter, rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            try {
+                for (int i = 1; i <= columns; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writer.write(meta.getColumnLabel(i));
+                }
+                writer.write("\n");
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        writer.write(i > 1 ? "," : "");
+                        writer.write(csv(value(rs, i)));
+                    }
+                    writer.write("\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        writer.flush();
+    }
+
+    public void writeNdjson(DistributionFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        stream(filter, rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            try {
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        row.put(meta.getColumnLabel(i), value(rs, i));
+                    }
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write("\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        writer.flush();
+    }
+
+    // Postgres only uses a cursor (honours the fetch size) inside a transaction
+    private void stream(DistributionFilter filter, ResultSetExtractor<Void> extractor) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> params = new ArrayList<>();
+        if (filter.orgId() != null) {
+            sql.append(" AND er.awarded_by_org_id = ?");
+            params.add(filter.orgId());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND er.points_awarded_at >= ?");
+            params.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND er.points_awarded_at < ?");
+            params.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.reviewed() != null) {
+            sql.append(" AND COALESCE(er.admin_reviewed, FALSE) = ?");
+            params.add(filter.reviewed());
+        }
+        sql.append(" ORDER BY er.points_awarded_at DESC, er.id DESC");
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, extractor));
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Keep spreadsheets from evaluating free text such as admin notes as a formula
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,219 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.model.EventRegistration;
+import com.actify.repository.EventRegistrationRepository;
+import com.actify.repository.EventRepository;
+import com.actify.repository.PointsLedgerRepository;
+import com.actify.service.PointsLedgerService.PointsAward;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Admin review of point distributions: approve, adjust or revoke. A whole
+ * list of reviews runs in one transaction; the registrations, their events
+ * and the ledger totals that revokes take back are loaded with chunked IN
+ * queries, the registration changes are flushed as JDBC batches and every
+ * point change goes to the ledger in one batch, which sums the deltas per
+ * user.
+ */
+@Service
+public class PointReviewService {
+
+    public record ReviewEntry(Long registrationId, String action, Integer newPoints, String notes) {}
+
+    public record ReviewResult(int reviewed, int pointsDelta, List<Long> notFound, List<String> warnings) {}
+
+    public static final Set<String> ACTIONS = Set.of("approve", "adjust", "revoke");
+
+    public static final int MAX_REVIEWS = 10000;
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+
+    @Autowired
+    private PointsLedgerService pointsLedgerService;
+
+    /**
+     * Parses the bulk review payload. Either "reviews" with one object per
+     * registration, or "registrationIds" sharing the top-level action and
+     * notes; per-review fields fall back to the top-level ones.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ReviewEntry> parse(Map<String, Object> request) {
+        String defaultAction = (String) request.get("action");
+        String defaultNotes = (String) request.get("notes");
+        List<ReviewEntry> entries = new ArrayList<>();
+
+        List<Map<String, Object>> reviews = (List<Map<String, Object>>) request.get("reviews");
+        if (reviews != null) {
+            for (Map<String, Object> review : reviews) {
+                String action = review.get("action") != null ? (String) review.get("action") : defaultAction;
+                String notes = review.containsKey("notes") ? (String) review.get("notes") : defaultNotes;
+                Integer newPoints = review.get("newPoints") != null ? Integer.valueOf(review.get("newPoints").toString()) : null;
+                entries.add(new ReviewEntry(Long.valueOf(review.get("registrationId").toString()), action, newPoints, notes));
+            }
+        }
+        List<Object> registrationIds = (List<Object>) request.get("registrationIds");
+        if (registrationIds != null) {
+            Integer newPoints = request.get("newPoints") != null ? Integer.valueOf(request.get("newPoints").toString()) : null;
+            for (Object id : registrationIds) {
+                entries.add(new ReviewEntry(Long.valueOf(id.toString()), defaultAction, newPoints, defaultNotes));
+            }
+        }
+
+        if (entries.size() > MAX_REVIEWS) {
+            throw new IllegalArgumentException("At most " + MAX_REVIEWS + " reviews per request");
+        }
+        for (ReviewEntry entry : entries) {
+            if (!ACTIONS.contains(entry.action())) {
+                throw new IllegalArgumentException("Invalid action for registration " + entry.registrationId() + ": " + entry.action());
+            }
+            if ("adjust".equals(entry.action()) && entry.newPoints() == null) {
+                throw new IllegalArgumentException("newPoints is required to adjust registration " + entry.registrationId());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Applies the reviews in order with the same rules as reviewing them one
+     * at a time. Any action other than adjust or revoke only marks the
+     * distribution reviewed. A registration listed twice is reviewed once.
+     */
+    @Transactional
+    public ReviewResult review(List<ReviewEntry> entries) {
+        Map<Long, EventRegistration> registrations = loadRegistrations(entries);
+        Map<Long, Event> events = loadEvents(entries, registrations);
+        Map<Long, int[]> credited = loadCredited(entries, registrations);
+
+        LocalDateTime now = LocalDateTime.now();
+        int reviewed = 0;
+        int pointsDelta = 0;
+        List<Long> notFound = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        List<PointsAward> awards = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<EventRegistration> changed = new ArrayList<>();
+
+        for (ReviewEntry entry : entries) {
+            EventRegistration reg = registrations.get(entry.registrationId());
+            if (reg == null) {
+                notFound.add(entry.registrationId());
+                continue;
+            }
+            if (!seen.add(reg.getId())) {
+                warnings.add("Registration ID " + reg.getId() + " listed more than once, reviewed once");
+                continue;
+            }
+
+            // Key and award time are taken before the registration is modified
+            String idempotencyKey = PointsLedgerService.keyFor(entry.action(), reg);
+            LocalDateTime awardedAt = reg.getPointsAwardedAt();
+            Event event = events.get(reg.getEventId());
+            String cause = event != null ? event.getCause() : null;
+
+            reg.setAdminReviewed(true);
+            reg.setAdminReviewedAt(now);
+            reg.setAdminNotes(entry.notes());
+
+            if ("adjust".equals(entry.action())) {
+                int newPoints = entry.newPoints();
+                int pointsDiff = newPoints - reg.getPointsAwarded();
+                if (pointsDiff != 0) {
+                    awards.add(new PointsAward(reg.getUserId(), reg.getEventId(), reg.getId(),
+                        reg.getAwardedByOrgId(), pointsDiff, 0, 0, "adjust", idempotencyKey, cause, awardedAt));
+                    pointsDelta += pointsDiff;
+                }
+                reg.setPointsAwarded(newPoints);
+            } else if ("revoke".equals(entry.action())) {
+                // Take back exactly what the ledger credited for this registration, so it nets to zero
+                int[] taken = credited.get(reg.getId());
+                if (taken == null) {
+                    // Awarded before the ledger existed: deduct the points, and the completed event and its hours for full attendance
+                    boolean attended = "attended".equals(reg.getAttendanceStatus());
+                    int hours = attended && event != null ? (event.getDuration() != null ? event.getDuration() : 3) : 0;
+                    taken = new int[] { reg.getPointsAwarded(), attended ? 1 : 0, hours };
+                }
+                awards.add(new PointsAward(reg.getUserId(), reg.getEventId(), reg.getId(),
+                    reg.getAwardedByOrgId(), -taken[0], -taken[1], -taken[2], "revoke", idempotencyKey, cause, awardedAt));
+                pointsDelta -= taken[0];
+
+                reg.setPointsAwarded(0);
+                reg.setAttendanceStatus("revoked");
+            }
+
+            changed.add(reg);
+            reviewed++;
+        }
+
+        // Flushed as JDBC batches (hibernate.jdbc.batch_size); user totals move once per user
+        eventRegistrationRepository.saveAll(changed);
+        pointsLedgerService.applyAll(awards);
+
+        return new ReviewResult(reviewed, pointsDelta, notFound, warnings);
+    }
+
+    private Map<Long, EventRegistration> loadRegistrations(List<ReviewEntry> entries) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(entries.stream().map(ReviewEntry::registrationId).toList()));
+        Map<Long, EventRegistration> registrations = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            for (EventRegistration reg : eventRegistrationRepository.findAllById(ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size())))) {
+                registrations.put(reg.getId(), reg);
+            }
+        }
+        return registrations;
+    }
+
+    // Ledger totals per registration, only needed for revokes
+    private Map<Long, int[]> loadCredited(List<ReviewEntry> entries, Map<Long, EventRegistration> registrations) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(entries.stream()
+            .filter(entry -> "revoke".equals(entry.action()) && registrations.containsKey(entry.registrationId()))
+            .map(ReviewEntry::registrationId).toList()));
+        Map<Long, int[]> credited = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            for (Object[] row : pointsLedgerRepository.sumDeltasByRegistrationIds(ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size())))) {
+                credited.put(((Number) row[0]).longValue(),
+                    new int[] { ((Number) row[1]).intValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue() });
+            }
+        }
+        return credited;
+    }
+
+    // Cause and duration are only needed for reviews that move points
+    private Map<Long, Event> loadEvents(List<ReviewEntry> entries, Map<Long, EventRegistration> registrations) {
+        Set<Long> eventIdSet = new LinkedHashSet<>();
+        for (ReviewEntry entry : entries) {
+            EventRegistration reg = registrations.get(entry.registrationId());
+            if (reg != null && !"approve".equals(entry.action())) {
+                eventIdSet.add(reg.getEventId());
+            }
+        }
+        List<Long> eventIds = new ArrayList<>(eventIdSet);
+        Map<Long, Event> events = new HashMap<>();
+        for (int from = 0; from < eventIds.size(); from += LOOKUP_CHUNK) {
+            for (Event event : eventRepository.findAllById(eventIds.subList(from, Math.min(from + LOOKUP_CHUNK, eventIds.size())))) {
+                events.put(event.getId(), event);
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,154 @@
+package com.actify.service;
+
+import com.actify.model.EventRegistration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Single entry point for changing a volunteer's points, completed events and
+ * hours. Each change is appended to points_ledger under an idempotency key and
+ * the user totals are moved with in-database increments, so concurrent awards
+ * never lose updates and replays are harmless.
+ */
+@Service
+public class PointsLedgerService {
+
+    public record PointsAward(Long userId, Long eventId, Long registrationId, Long orgId,
+                              int points, int events, int hours, String reason,
+                              String idempotencyKey, String cause, LocalDateTime awardedAt) {}
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ENTRY =
+        "INSERT INTO points_ledger (user_id, event_id, registration_id, org_id, points_delta, events_delta, hours_delta, reason, idempotency_key, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING";
+
+    // GREATEST keeps the existing "never below zero" behaviour of revokes
+    private static final String INCREMENT_USER =
+        "UPDATE users SET volunteer_points = GREATEST(volunteer_points + ?, 0), " +
+        "events_completed = GREATEST(events_completed + ?, 0), " +
+        "volunteer_hours = GREATEST(volunteer_hours + ?, 0), updated_at = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private DimensionalLeaderboardService dimensionalLeaderboardService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    /**
+     * Idempotency key for a change to a registration. It is derived from the
+     * registration's state before the change, so a retried request that sees
+     * the same state collapses into one ledger entry while later, different
+     * changes to the same registration get their own.
+     */
+    public static String keyFor(String reason, EventRegistration reg) {
+        return reason + ":" + reg.getId() + ":" + reg.getAttendanceStatus() + ":" + reg.getPointsAwarded() + ":" + reg.getAdminReviewedAt();
+    }
+
+    @Transactional
+    public boolean apply(PointsAward award) {
+        return !applyAll(List.of(award)).isEmpty();
+    }
+
+    /**
+     * Records the awards and applies them to user totals in one transaction.
+     * Awards whose key is already in the ledger are skipped. Deltas are summed
+     * per user so each user row is updated once. Returns the awards that were
+     * actually applied.
+     */
+    @Transactional
+    public List<PointsAward> applyAll(List<PointsAward> awards) {
+        if (awards.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_ENTRY, awards, BATCH_SIZE, (ps, award) -> {
+            ps.setLong(1, award.userId());
+            ps.setObject(2, award.eventId(), Types.BIGINT);
+            ps.setObject(3, award.registrationId(), Types.BIGINT);
+            ps.setObject(4, award.orgId(), Types.BIGINT);
+            ps.setInt(5, award.points());
+            ps.setInt(6, award.events());
+            ps.setInt(7, award.hours());
+            ps.setString(8, award.reason());
+            ps.setString(9, award.idempotencyKey());
+            ps.setTimestamp(10, now);
+        });
+
+        List<PointsAward> applied = new ArrayList<>();
+        int position = 0;
+        for (int[] batch : inserted) {
+            for (int count : batch) {
+                if (count > 0) {
+                    applied.add(awards.get(position));
+                }
+                position++;
+            }
+        }
+        if (applied.isEmpty()) {
+            return applied;
+        }
+
+        // Sorted by user id so concurrent batches lock rows in the same order
+        Map<Long, int[]> deltas = new TreeMap<>();
+        for (PointsAward award : applied) {
+            int[] delta = deltas.computeIfAbsent(award.userId(), id -> new int[3]);
+            delta[0] += award.points();
+            delta[1] += award.events();
+            delta[2] += award.hours();
+        }
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, int[]> entry : deltas.entrySet()) {
+            int[] delta = entry.getValue();
+            updates.add(new Object[] { delta[0], delta[1], delta[2], now, entry.getKey() });
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_USER, updates);
+        entityCacheService.evictUsers(deltas.keySet());
+
+        Set<Long> userIds = deltas.keySet();
+        afterCommit(() -> publish(applied, userIds));
+        return applied;
+    }
+
+    // In-memory leaderboards only learn about changes that were committed. The overall and city
+    // boards re-read the totals, since transactions can publish in a different order than they commit
+    private void publish(List<PointsAward> applied, Set<Long> userIds) {
+        leaderboardService.refreshPoints(userIds);
+        for (PointsAward award : applied) {
+            dimensionalLeaderboardService.recordAward(award.userId(), award.cause(), award.points(), award.awardedAt());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.actify.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistics index over (id, score) pairs, ordered by score descending
+ * and then by id ascending. Backed by a size-augmented treap so that insert,
+ * update, remove and rank lookups are all O(log n).
+ *
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class RankIndex {
+
+    private static final class Node {
+        final long id;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long id, long score) {
+            this.id = id;
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private Node root;
+
+    public int size() {
+        return scores.size();
+    }
+
+    public boolean contains(long id) {
+        return scores.containsKey(id);
+    }
+
+    /** Current score of the given id, or null if it is not indexed. */
+    public Long scoreOf(long id) {
+        return scores.get(id);
+    }
+
+    /** Inserts the id or moves it to its new score. */
+    public void put(long id, long score) {
+        Long previous = scores.put(id, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            root = delete(root, id, previous);
+        }
+        root = insert(root, new Node(id, score));
+    }
+
+    /** Adds delta to the id's score (starting from zero) and returns the new score. */
+    public long add(long id, long delta) {
+        Long current = scores.get(id);
+        long updated = (current != null ? current : 0L) + delta;
+        put(id, updated);
+        return updated;
+    }
+
+    public void remove(long id) {
+        Long previous = scores.remove(id);
+        if (previous != null) {
+            root = delete(root, id, previous);
+        }
+    }
+
+    public void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    /** 1-based position of the id in the ordering, or -1 if it is not indexed. */
+    public int rankOf(long id) {
+        Long score = scores.get(id);
+        if (score == null) {
+            return -1;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(id, score, node.id, node.score);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left);
+                if (cmp == 0) {
+                    return before + 1;
+                }
+                before += 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /** Number of indexed ids whose score is strictly greater than the given score. */
+    public int countAbove(long score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies up to limit entries starting at the 0-based offset into the
+     * given arrays and returns how many were written.
+     */
+    public int slice(int offset, int limit, long[] ids, long[] scoresOut) {
+        if (offset < 0 || limit <= 0) {
+            return 0;
+        }
+        int max = Math.min(limit, Math.min(ids.length, scoresOut.length));
+        return collect(root, offset, max, ids, scoresOut, 0);
+    }
+
+    private int collect(Node node, int skip, int max, long[] ids, long[] scoresOut, int written) {
+        if (node == null || written >= max) {
+            return written;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            written = collect(node.left, skip, max, ids, scoresOut, written);
+        }
+        if (written >= max) {
+            return written;
+        }
+        if (skip <= leftSize) {
+            ids[written] = node.id;
+            scoresOut[written] = node.score;
+            written++;
+        }
+        return collect(node.right, Math.max(0, skip - leftSize - 1), max, ids, scoresOut, written);
+    }
+
+    private static int compare(long idA, long scoreA, long idB, long scoreB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? -1 : 1;
+        }
+        return Long.compare(idA, idB);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.id, fresh.score, node.id, node.score) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long id, long score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(id, score, node.id, node.score);
+        if (cmp < 0) {
+            node.left = delete(node.left, id, score);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, id, score);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
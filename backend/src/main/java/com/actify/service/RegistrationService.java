@@ -0,0 +1,210 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.model.EventRegistration;
+import com.actify.model.WaitlistEntry;
+import com.actify.repository.EventRegistrationRepository;
+import com.actify.repository.EventRepository;
+import com.actify.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Event sign-ups. They arrive in batches from EventAdmissionService; a batch
+ * holds the event row lock while it checks capacity and takes its seats, so
+ * concurrent sign-ups can never push an event past its capacity. The
+ * registration row is protected by the (user_id, event_id) unique constraint.
+ *
+ * Volunteers who find an event full join its FIFO waitlist. A seat freed by
+ * an unregistration goes to the head of the waitlist in the same
+ * transaction, so it is never visible as free to anyone else.
+ */
+@Service
+public class RegistrationService {
+
+    public enum Outcome { REGISTERED, WAITLISTED, ALREADY_REGISTERED, NOT_FOUND, NOT_OPEN }
+
+    // Same defaults as a new EventRegistration; one row per user id in the array
+    private static final String INSERT_REGISTRATIONS =
+        "INSERT INTO event_registrations (user_id, event_id, status, registration_date, attendance_confirmed, " +
+        "attendance_status, points_awarded, admin_reviewed) " +
+        "SELECT u, ?, 'registered', ?, FALSE, 'pending', 0, FALSE FROM unnest(?::bigint[]) AS u " +
+        "ON CONFLICT (user_id, event_id) DO NOTHING RETURNING user_id";
+
+    // position is 1-based and only set for WAITLISTED
+    public record RegistrationResult(Outcome outcome, long position) {
+        static RegistrationResult of(Outcome outcome) {
+            return new RegistrationResult(outcome, 0);
+        }
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registers a batch of users for one event in a single transaction: one
+     * row lock, one counter update and one JDBC batch of inserts for the
+     * whole batch instead of one of each per user. Results are in the order
+     * of userIds; a user listed twice gets ALREADY_REGISTERED for the second
+     * entry. Any other failing row fails the whole batch, see
+     * EventAdmissionService.
+     */
+    @Transactional
+    public List<RegistrationResult> registerBatch(Long eventId, List<Long> userIds) {
+        List<RegistrationResult> results = new ArrayList<>(userIds.size());
+        Optional<Event> eventOpt = eventRepository.lockById(eventId);
+        if (eventOpt.isEmpty() || !"active".equals(eventOpt.get().getStatus())) {
+            Outcome outcome = eventOpt.isEmpty() ? Outcome.NOT_FOUND : Outcome.NOT_OPEN;
+            userIds.forEach(userId -> results.add(RegistrationResult.of(outcome)));
+            return results;
+        }
+        Event event = eventOpt.get();
+
+        Set<Long> taken = new HashSet<>();
+        for (EventRegistration reg : eventRegistrationRepository.findByEventIdAndUserIdIn(eventId, userIds)) {
+            taken.add(reg.getUserId());
+        }
+        // No free seats for newcomers while people are waiting
+        long queued = waitlistRepository.countByEventId(eventId);
+        int registered = event.getVolunteersRegistered() == null ? 0 : event.getVolunteersRegistered();
+        int free = queued > 0 ? 0 : event.getCapacity() == null ? Integer.MAX_VALUE : Math.max(0, event.getCapacity() - registered);
+
+        List<Long> granted = new ArrayList<>();
+        List<Integer> grantedAt = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!taken.add(userId)) {
+                results.add(RegistrationResult.of(Outcome.ALREADY_REGISTERED));
+            } else if (granted.size() < free) {
+                granted.add(userId);
+                grantedAt.add(results.size());
+                results.add(RegistrationResult.of(Outcome.REGISTERED));
+            } else if (waitlistRepository.enqueue(eventId, userId) > 0) {
+                results.add(new RegistrationResult(Outcome.WAITLISTED, ++queued));
+            } else {
+                results.add(new RegistrationResult(Outcome.WAITLISTED, waitlistPosition(userId, eventId)));
+            }
+        }
+        if (!granted.isEmpty()) {
+            Set<Long> inserted = insertRegistrations(eventId, granted);
+            for (int i = 0; i < granted.size(); i++) {
+                if (!inserted.contains(granted.get(i))) {
+                    // Registered by another path since the lookup above
+                    results.set(grantedAt.get(i), RegistrationResult.of(Outcome.ALREADY_REGISTERED));
+                }
+            }
+            if (!inserted.isEmpty()) {
+                eventRepository.takeSeats(eventId, inserted.size());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Removes the user's registration, frees its seat and hands it to the
+     * next volunteer on the waitlist, all in one transaction. Returns false
+     * if there was nothing to remove.
+     */
+    @Transactional
+    public boolean unregister(Long userId, Long eventId) {
+        // Event row first, as in registerBatch: the registration triggers lock counter rows that
+        // a sign-up batch takes while already holding the event
+        eventRepository.lockById(eventId);
+        Optional<EventRegistration> regOpt = eventRegistrationRepository.findByUserIdAndEventId(userId, eventId);
+        if (regOpt.isEmpty()) {
+            return false;
+        }
+        EventRegistration reg = regOpt.get();
+        if (eventRegistrationRepository.deleteRegistration(reg.getId()) == 0) {
+            return false;
+        }
+        if ("registered".equals(reg.getStatus())) {
+            eventRepository.releaseSeat(eventId);
+            promoteFromWaitlist(eventId, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Moves up to max volunteers from the head of the waitlist into free
+     * seats. Also used after an event's capacity is raised.
+     */
+    @Transactional
+    public int promoteFromWaitlist(Long eventId, int max) {
+        int promoted = 0;
+        while (promoted < max) {
+            Optional<WaitlistEntry> head = waitlistRepository.lockHead(eventId);
+            if (head.isEmpty()) {
+                break;
+            }
+            Long userId = head.get().getUserId();
+            // Someone who registered by other means just leaves the queue
+            if (eventRegistrationRepository.existsByUserIdAndEventId(userId, eventId)) {
+                waitlistRepository.dequeue(eventId, userId);
+                continue;
+            }
+            if (eventRepository.reserveSeat(eventId) == 0) {
+                break;
+            }
+            waitlistRepository.dequeue(eventId, userId);
+            eventRegistrationRepository.save(newRegistration(userId, eventId));
+            promoted++;
+        }
+        return promoted;
+    }
+
+    @Transactional
+    public boolean leaveWaitlist(Long userId, Long eventId) {
+        return waitlistRepository.dequeue(eventId, userId) > 0;
+    }
+
+    // 1-based place in the event's waitlist, or 0 if the user is not waiting
+    @Transactional(readOnly = true)
+    public long waitlistPosition(Long userId, Long eventId) {
+        return waitlistRepository.findByEventIdAndUserId(eventId, userId)
+            .map(entry -> waitlistRepository.countByEventIdAndIdLessThan(eventId, entry.getId()) + 1)
+            .orElse(0L);
+    }
+
+    // One statement for the whole batch: IDENTITY ids keep Hibernate from batching entity inserts,
+    // and JDBC batch counts are not per row once the driver rewrites batched inserts.
+    // Returns the users that got a new registration.
+    private Set<Long> insertRegistrations(Long eventId, List<Long> userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_REGISTRATIONS);
+            ps.setLong(1, eventId);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, con.createArrayOf("bigint", userIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+    }
+
+    private static EventRegistration newRegistration(Long userId, Long eventId) {
+        EventRegistration registration = new EventRegistration();
+        registration.setUserId(userId);
+        registration.setEventId(eventId);
+        registration.setStatus("registered");
+        return registration;
+    }
+
+}
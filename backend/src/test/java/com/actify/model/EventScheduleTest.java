@@ -0,0 +1,82 @@
+package com.actify.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EventScheduleTest {
+
+    private static final LocalDateTime JAN_29 = LocalDateTime.of(2025, 1, 29, 0, 0);
+
+    @Test
+    void parsesEveryDateFormat() {
+        assertEquals(JAN_29, local(EventSchedule.startsAt("2025-01-29", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("Jan 29, 2025", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("JAN 29, 2025", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("January 29, 2025", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("1/29/2025", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("01/29/2025", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("  2025-01-29 ", null)));
+    }
+
+    @Test
+    void unreadableDatesHaveNoSchedule() {
+        assertNull(EventSchedule.startsAt(null, "10:00"));
+        assertNull(EventSchedule.startsAt(" ", "10:00"));
+        assertNull(EventSchedule.startsAt("29.01.2025", "10:00"));
+        assertNull(EventSchedule.startsAt("2025-02-30", "10:00"));
+        assertNull(EventSchedule.endsAt("soon", "10:00", "12:00", 2));
+    }
+
+    @Test
+    void parsesEveryTimeFormat() {
+        assertEquals(JAN_29.withHour(14).withMinute(30), local(EventSchedule.startsAt("2025-01-29", "14:30")));
+        assertEquals(JAN_29.withHour(14).withMinute(30).withSecond(15), local(EventSchedule.startsAt("2025-01-29", "14:30:15")));
+        assertEquals(JAN_29.withHour(7), local(EventSchedule.startsAt("2025-01-29", "7:00")));
+        assertEquals(JAN_29.withHour(9).withMinute(30), local(EventSchedule.startsAt("2025-01-29", "9:30 AM")));
+        assertEquals(JAN_29.withHour(21).withMinute(30), local(EventSchedule.startsAt("2025-01-29", "9:30pm")));
+        assertEquals(JAN_29.withHour(21), local(EventSchedule.startsAt("2025-01-29", "9 PM")));
+        assertEquals(JAN_29.withHour(21), local(EventSchedule.startsAt("2025-01-29", "9pm")));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("2025-01-29", "12:00 AM")));
+        assertEquals(JAN_29.withHour(12), local(EventSchedule.startsAt("2025-01-29", "12 PM")));
+    }
+
+    @Test
+    void missingOrUnreadableStartTimeMeansMidnight() {
+        assertEquals(JAN_29, local(EventSchedule.startsAt("2025-01-29", null)));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("2025-01-29", "morning")));
+        assertEquals(JAN_29, local(EventSchedule.startsAt("2025-01-29", "25:00")));
+    }
+
+    @Test
+    void endTimeOnTheSameDay() {
+        assertEquals(JAN_29.withHour(12), local(EventSchedule.endsAt("2025-01-29", "9:00", "12:00", 8)));
+        assertEquals(JAN_29.withHour(17), local(EventSchedule.endsAt("Jan 29, 2025", "9:00 AM", "5:00 PM", null)));
+    }
+
+    @Test
+    void endTimeBeforeStartRunsPastMidnight() {
+        assertEquals(JAN_29.plusDays(1).withHour(2), local(EventSchedule.endsAt("2025-01-29", "22:00", "02:00", null)));
+        assertEquals(JAN_29.plusDays(1).withHour(1).withMinute(30), local(EventSchedule.endsAt("2025-01-29", "11 PM", "1:30 AM", null)));
+        assertEquals(JAN_29.plusDays(1).withHour(9), local(EventSchedule.endsAt("2025-01-29", "9:00", "9:00", null)));
+    }
+
+    @Test
+    void durationAppliesOnlyWithAStartTime() {
+        assertEquals(JAN_29.withHour(12).withMinute(30), local(EventSchedule.endsAt("2025-01-29", "9:30", null, 3)));
+        assertEquals(JAN_29.plusDays(1).withHour(2), local(EventSchedule.endsAt("2025-01-29", "20:00", "late", 6)));
+        assertEquals(JAN_29.plusDays(1), local(EventSchedule.endsAt("2025-01-29", null, null, 3)));
+        assertEquals(JAN_29.plusDays(1), local(EventSchedule.endsAt("2025-01-29", "9:30", null, 0)));
+        assertEquals(JAN_29.plusDays(1), local(EventSchedule.endsAt("2025-01-29", "9:30", null, null)));
+    }
+
+    // Compared as local times so the tests do not depend on the machine's time zone
+    private static LocalDateTime local(OffsetDateTime value) {
+        return value == null ? null : value.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,125 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.service.EventTextIndex.TextHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventTextIndexTest {
+
+    @Test
+    void titleMatchOutranksDescriptionMatch() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(1L, "Community picnic", "Bring a garden tool if you have one"));
+        index.onEventSaved(event(2L, "Garden day", "Weeding and planting beds"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("garden", 10)));
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(1L, "Cleanup", "River cleanup"));
+        index.onEventSaved(event(2L, "Cleanup", "Park cleanup"));
+        index.onEventSaved(event(3L, "Cleanup", "Beach cleanup"));
+        index.onEventSaved(event(4L, "Tree planting", "Plant trees by the road"));
+
+        List<TextHit> hits = index.search("cleanup tree", 10);
+        assertEquals(4L, hits.get(0).eventId());
+        assertEquals(4, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).score() >= hits.get(i).score(), "scores must not increase");
+        }
+    }
+
+    @Test
+    void shorterDocumentWinsOnEqualTermFrequency() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(1L, "Food bank shift", "Sorting donations, packing boxes, stocking shelves and greeting visitors"));
+        index.onEventSaved(event(2L, "Food drive", "Sorting donations"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("food", 10)));
+    }
+
+    @Test
+    void equalScoresAreOrderedByIdAndLimited() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(3L, "Mentoring", null));
+        index.onEventSaved(event(1L, "Mentoring", null));
+        index.onEventSaved(event(2L, "Mentoring", null));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("mentoring", 2)));
+        assertTrue(index.search("mentoring", 0).isEmpty());
+        assertTrue(index.search("the and of", 10).isEmpty());
+    }
+
+    @Test
+    void inactiveAndDeletedEventsLeaveTheIndex() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(1L, "Beach cleanup", null));
+        index.onEventSaved(event(2L, "Beach volleyball fundraiser", null));
+
+        Event completed = event(1L, "Beach cleanup", null);
+        completed.setStatus("completed");
+        index.onEventSaved(completed);
+        assertEquals(List.of(2L), ids(index.search("beach", 10)));
+
+        index.onEventDeleted(2L);
+        assertTrue(index.search("beach", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void highlightsEscapeMarkupAndMarkMatchedTerms() {
+        EventTextIndex index = new EventTextIndex();
+        index.onEventSaved(event(1L, "Kids & <Code> \"Club\"", "Teach <script>alert(1)</script> coding basics"));
+
+        TextHit hit = index.search("code script", 10).get(0);
+        assertEquals("Kids &amp; &lt;<mark>Code</mark>&gt; &quot;Club&quot;", hit.highlights().get("title"));
+        assertEquals("Teach &lt;<mark>script</mark>&gt;alert(1)&lt;/<mark>script</mark>&gt; coding basics",
+            hit.highlights().get("description"));
+    }
+
+    @Test
+    void highlightsMatchPluralsAndSkipFieldsWithoutMatches() {
+        EventTextIndex index = new EventTextIndex();
+        Event event = event(1L, "Trees for the park", "Planting day");
+        event.setSkillsNeeded("Digging");
+        index.onEventSaved(event);
+
+        TextHit hit = index.search("tree", 10).get(0);
+        assertEquals("<mark>Trees</mark> for the park", hit.highlights().get("title"));
+        assertFalse(hit.highlights().containsKey("description"));
+        assertFalse(hit.highlights().containsKey("skillsNeeded"));
+    }
+
+    @Test
+    void longFieldsAreCutToAWindowAroundTheFirstMatch() {
+        EventTextIndex index = new EventTextIndex();
+        String description = "lorem ".repeat(60) + "recycling drive " + "ipsum ".repeat(60);
+        index.onEventSaved(event(1L, "Neighbourhood day", description));
+
+        String snippet = index.search("recycling", 10).get(0).highlights().get("description");
+        assertTrue(snippet.startsWith("..."), snippet);
+        assertTrue(snippet.endsWith("..."), snippet);
+        assertTrue(snippet.contains("<mark>recycling</mark> drive"), snippet);
+    }
+
+    private static Event event(Long id, String title, String description) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setStatus("active");
+        return event;
+    }
+
+    private static List<Long> ids(List<TextHit> hits) {
+        return hits.stream().map(TextHit::eventId).toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.actify.service;
+
+import com.actify.model.Event;
+import com.actify.service.GeoEventIndex.GeoHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoEventIndexTest {
+
+    private static final double KM_PER_DEGREE = 6371.0088 * Math.PI / 180;
+
+    @Test
+    void withinFindsEventsOnBothSidesOfACellEdge() {
+        GeoEventIndex index = new GeoEventIndex();
+        index.onEventSaved(event(1L, 0.0999, 10.0));
+        index.onEventSaved(event(2L, 0.1001, 10.0));
+        index.onEventSaved(event(3L, 0.1, 10.0999));
+        index.onEventSaved(event(4L, 0.1, 10.1001));
+        index.onEventSaved(event(5L, 0.3, 10.0));
+
+        List<GeoHit> hits = index.within(0.1, 10.05, 8, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L), sortedIds(hits));
+        assertEquals(2, index.within(0.1, 10.05, 8, 2).size());
+    }
+
+    @Test
+    void withinWrapsAroundTheAntimeridian() {
+        GeoEventIndex index = new GeoEventIndex();
+        index.onEventSaved(event(1L, 0, 179.95));
+        index.onEventSaved(event(2L, 0, -179.95));
+        index.onEventSaved(event(3L, 0, 179.5));
+
+        assertEquals(List.of(1L, 2L), sortedIds(index.within(0, 180, 10, 10)));
+        assertEquals(List.of(1L, 2L), sortedIds(index.within(0, -179.99, 15, 10)));
+    }
+
+    @Test
+    void nearestLooksPastTheFirstRadius() {
+        GeoEventIndex index = new GeoEventIndex();
+        // The search starts at 5 km and doubles: 5.5 km needs one step, 10.5 km two, 40 km four
+        index.onEventSaved(event(1L, 40 + 5.5 / KM_PER_DEGREE, -3));
+        index.onEventSaved(event(2L, 40 - 10.5 / KM_PER_DEGREE, -3));
+        index.onEventSaved(event(3L, 40 + 40 / KM_PER_DEGREE, -3));
+
+        List<GeoHit> one = index.nearest(40, -3, 1);
+        assertEquals(List.of(1L), ids(one));
+        assertEquals(5.5, one.get(0).distanceKm(), 1e-6);
+        assertEquals(List.of(1L, 2L), ids(index.nearest(40, -3, 2)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.nearest(40, -3, 5)));
+    }
+
+    @Test
+    void nearestPrefersACloserEventJustOutsideTheRadiusThatFilledK() {
+        GeoEventIndex index = new GeoEventIndex();
+        // 4.9 km fills k=1 at the first radius; 5.1 km must still lose to it and win k=2 over 9.9 km
+        index.onEventSaved(event(1L, 40 + 4.9 / KM_PER_DEGREE, -3));
+        index.onEventSaved(event(2L, 40 - 5.1 / KM_PER_DEGREE, -3));
+        index.onEventSaved(event(3L, 40 + 9.9 / KM_PER_DEGREE, -3));
+
+        assertEquals(List.of(1L), ids(index.nearest(40, -3, 1)));
+        assertEquals(List.of(1L, 2L), ids(index.nearest(40, -3, 2)));
+    }
+
+    @Test
+    void nearestCrossesAPole() {
+        GeoEventIndex index = new GeoEventIndex();
+        index.onEventSaved(event(1L, 89.95, 180));
+        index.onEventSaved(event(2L, 89.0, 0));
+
+        List<GeoHit> hits = index.nearest(89.95, 0, 1);
+        assertEquals(List.of(1L), ids(hits));
+        assertEquals(0.1 * KM_PER_DEGREE, hits.get(0).distanceKm(), 1e-6);
+    }
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        Random random = new Random(7);
+        GeoEventIndex index = new GeoEventIndex();
+        List<double[]> locations = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            double lat = 51 + random.nextGaussian() * 0.5;
+            double lng = random.nextGaussian() * 0.8;
+            index.onEventSaved(event(id, lat, lng));
+            locations.add(new double[] {lat, lng});
+        }
+
+        for (int query = 0; query < 20; query++) {
+            double lat = 51 + random.nextGaussian();
+            double lng = random.nextGaussian();
+            List<GeoHit> expected = new ArrayList<>();
+            for (int id = 0; id < locations.size(); id++) {
+                double[] location = locations.get(id);
+                expected.add(new GeoHit(id, GeoEventIndex.distanceKm(lat, lng, location[0], location[1])));
+            }
+            expected.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+
+            List<GeoHit> actual = index.nearest(lat, lng, 10);
+            assertEquals(10, actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(expected.get(i).distanceKm(), actual.get(i).distanceKm(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void inactiveEventsAndEventsWithoutCoordinatesAreNotIndexed() {
+        GeoEventIndex index = new GeoEventIndex();
+        index.onEventSaved(event(1L, 10, 10));
+        index.onEventSaved(event(2L, 10.01, 10));
+        Event noLocation = event(3L, 10, 10);
+        noLocation.setLatitude(null);
+        index.onEventSaved(noLocation);
+
+        Event completed = event(1L, 10, 10);
+        completed.setStatus("completed");
+        index.onEventSaved(completed);
+        assertEquals(List.of(2L), ids(index.nearest(10, 10, 5)));
+
+        // Moving an event takes it out of its old cell
+        index.onEventSaved(event(2L, 20, 20));
+        assertTrue(index.within(10, 10, 50, 10).isEmpty());
+
+        index.onEventDeleted(2L);
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(10, 10, 5).isEmpty());
+    }
+
+    private static Event event(Long id, double lat, double lng) {
+        Event event = new Event();
+        event.setId(id);
+        event.setLatitude(lat);
+        event.setLongitude(lng);
+        event.setStatus("active");
+        return event;
+    }
+
+    private static List<Long> ids(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::eventId).toList();
+    }
+
+    // For checks on which events were found rather than their order
+    private static List<Long> sortedIds(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::eventId).sorted().toList();
+    }
+}
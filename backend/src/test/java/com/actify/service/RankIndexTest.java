@@ -0,0 +1,148 @@
+package com.actify.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RankIndexTest {
+
+    @Test
+    void ranksByScoreDescendingThenIdAscending() {
+        RankIndex index = new RankIndex();
+        index.put(3, 50);
+        index.put(1, 80);
+        index.put(2, 50);
+        index.put(4, 10);
+
+        assertEquals(1, index.rankOf(1));
+        assertEquals(2, index.rankOf(2));
+        assertEquals(3, index.rankOf(3));
+        assertEquals(4, index.rankOf(4));
+        assertEquals(-1, index.rankOf(99));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void updateMovesTheIdToItsNewPosition() {
+        RankIndex index = new RankIndex();
+        index.put(1, 100);
+        index.put(2, 50);
+        index.put(3, 10);
+
+        index.put(3, 200);
+        assertEquals(1, index.rankOf(3));
+        assertEquals(2, index.rankOf(1));
+        assertEquals(3, index.rankOf(2));
+
+        assertEquals(60, index.add(2, 10));
+        assertEquals(60L, index.scoreOf(2));
+        assertEquals(3, index.size());
+        assertSlice(index, 0, 3, new long[] {3, 1, 2}, new long[] {200, 100, 60});
+    }
+
+    @Test
+    void removeClosesTheGap() {
+        RankIndex index = new RankIndex();
+        index.put(1, 30);
+        index.put(2, 20);
+        index.put(3, 10);
+
+        index.remove(2);
+        index.remove(42);
+
+        assertFalse(index.contains(2));
+        assertNull(index.scoreOf(2));
+        assertEquals(-1, index.rankOf(2));
+        assertEquals(2, index.rankOf(3));
+        assertEquals(2, index.size());
+        assertSlice(index, 0, 10, new long[] {1, 3}, new long[] {30, 10});
+    }
+
+    @Test
+    void sliceHonoursOffsetAndLimit() {
+        RankIndex index = new RankIndex();
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, id * 10);
+        }
+
+        assertSlice(index, 0, 3, new long[] {10, 9, 8}, new long[] {100, 90, 80});
+        assertSlice(index, 4, 2, new long[] {6, 5}, new long[] {60, 50});
+        assertSlice(index, 8, 5, new long[] {2, 1}, new long[] {20, 10});
+        assertSlice(index, 10, 5, new long[0], new long[0]);
+        assertEquals(0, index.slice(-1, 5, new long[5], new long[5]));
+        assertEquals(0, index.slice(0, 0, new long[5], new long[5]));
+    }
+
+    @Test
+    void countAboveIsStrict() {
+        RankIndex index = new RankIndex();
+        index.put(1, 30);
+        index.put(2, 20);
+        index.put(3, 20);
+        index.put(4, 10);
+
+        assertEquals(0, index.countAbove(30));
+        assertEquals(1, index.countAbove(20));
+        assertEquals(3, index.countAbove(10));
+        assertEquals(4, index.countAbove(-1));
+    }
+
+    @Test
+    void matchesASortedListUnderRandomChanges() {
+        Random random = new Random(42);
+        RankIndex index = new RankIndex();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(300);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                long score = random.nextInt(50);
+                index.put(id, score);
+                expected.put(id, score);
+            } else if (op < 8) {
+                long delta = random.nextInt(21) - 10;
+                index.add(id, delta);
+                expected.merge(id, delta, Long::sum);
+            } else {
+                index.remove(id);
+                expected.remove(id);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed()
+            .thenComparingLong(Map.Entry::getKey));
+
+        assertEquals(sorted.size(), index.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, index.rankOf(sorted.get(i).getKey()));
+        }
+        long[] ids = new long[sorted.size()];
+        long[] scores = new long[sorted.size()];
+        assertEquals(sorted.size(), index.slice(0, sorted.size(), ids, scores));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i).getKey(), ids[i]);
+            assertEquals(sorted.get(i).getValue(), scores[i]);
+        }
+    }
+
+    private static void assertSlice(RankIndex index, int offset, int limit, long[] expectedIds, long[] expectedScores) {
+        long[] ids = new long[limit];
+        long[] scores = new long[limit];
+        int written = index.slice(offset, limit, ids, scores);
+        assertArrayEquals(expectedIds, Arrays.copyOf(ids, written));
+        assertArrayEquals(expectedScores, Arrays.copyOf(scores, written));
+    }
+}
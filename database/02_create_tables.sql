@@ -34,7 +34,7 @@ CREATE TABLE users (
 -- Add indexes for better query performance
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_user_type ON users(user_type);
-CREATE INDEX idx_users_volunteer_points ON users(volunteer_points DESC);
+CREATE INDEX idx_users_volunteer_points ON users(volunteer_points DESC, id ASC);
 
 -- ============================================
 -- Table: organizations
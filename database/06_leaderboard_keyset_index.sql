@@ -0,0 +1,10 @@
+-- ============================================
+-- Migration: Leaderboard Keyset Index
+-- Actify Database
+-- ============================================
+
+-- The leaderboard orders by points (highest first) and breaks ties by id.
+-- Including id in the index lets "around me" windows and cursor pages seek
+-- straight to their position instead of scanning with OFFSET.
+DROP INDEX IF EXISTS idx_users_volunteer_points;
+CREATE INDEX idx_users_volunteer_points ON users(volunteer_points DESC, id ASC);
@@ -0,0 +1,25 @@
+-- ============================================
+-- Migration: Points Ledger
+-- Actify Database
+-- ============================================
+
+-- Append-only record of every change to a volunteer's points, completed
+-- events and hours. The totals on users are maintained with atomic
+-- increments alongside each insert; the unique idempotency key makes a
+-- replayed award a no-op.
+CREATE TABLE IF NOT EXISTS points_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    event_id BIGINT,
+    registration_id BIGINT,
+    org_id BIGINT,
+    points_delta INTEGER NOT NULL DEFAULT 0,
+    events_delta INTEGER NOT NULL DEFAULT 0,
+    hours_delta INTEGER NOT NULL DEFAULT 0,
+    reason VARCHAR(50) NOT NULL CHECK (reason IN ('attendance', 'adjust', 'revoke')),
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_points_ledger_user ON points_ledger(user_id);
+CREATE INDEX IF NOT EXISTS idx_points_ledger_registration ON points_ledger(registration_id);
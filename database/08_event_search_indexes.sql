@@ -0,0 +1,12 @@
+-- ============================================
+-- Migration: Event Search Indexes
+-- Actify Database
+-- ============================================
+
+-- /api/events/search filters by status or cause and pages newest first by id.
+-- Ending each index with id lets a page seek past the cursor without sorting.
+CREATE INDEX IF NOT EXISTS idx_events_status_id ON events(status, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_cause_id ON events(cause, id DESC);
+
+-- The city filter is case-insensitive (LOWER(city) = ?), which a plain index on city cannot serve
+CREATE INDEX IF NOT EXISTS idx_events_lower_city_id ON events(LOWER(city), id DESC);
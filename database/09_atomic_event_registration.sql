@@ -0,0 +1,23 @@
+-- ============================================
+-- Migration: Atomic Event Registration
+-- Actify Database
+-- ============================================
+
+-- The application now reserves seats with a single conditional UPDATE on
+-- events.volunteers_registered in the same transaction as the insert.
+-- The participant-count trigger would count every sign-up a second time.
+DROP TRIGGER IF EXISTS update_event_participants ON event_registrations;
+DROP FUNCTION IF EXISTS update_event_participant_count();
+
+-- One registration per volunteer and event (already present on databases
+-- created from 02_create_tables.sql)
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_indexes
+        WHERE tablename = 'event_registrations'
+          AND indexdef LIKE 'CREATE UNIQUE INDEX%(user_id, event_id)'
+    ) THEN
+        CREATE UNIQUE INDEX uq_event_registrations_user_event ON event_registrations(user_id, event_id);
+    END IF;
+END $$;
@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Event Waitlist
+-- Actify Database
+-- ============================================
+
+-- FIFO queue of volunteers waiting for a seat at a full event. The head of
+-- an event's queue is the lowest id; (event_id, id) makes finding it a
+-- single index seek regardless of queue length.
+CREATE TABLE IF NOT EXISTS event_waitlist (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_event_waitlist_event_user UNIQUE (event_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_waitlist_queue ON event_waitlist(event_id, id);
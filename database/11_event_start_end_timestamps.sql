@@ -0,0 +1,79 @@
+-- ============================================
+-- Migration: Typed Event Start/End Times
+-- Actify Database
+-- ============================================
+
+-- events.date/time/end_time are free-form strings, so date ranges cannot use
+-- an index. starts_at/ends_at hold the same information as timestamptz and
+-- are kept in sync by the application on every save.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS starts_at TIMESTAMPTZ;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS ends_at TIMESTAMPTZ;
+
+-- Backfill existing rows with the same rules as EventSchedule. Dates are ISO
+-- (event form), 'Jan 29, 2025' / 'January 29, 2025' (seed data) or
+-- '1/29/2025'; times are 24-hour 'H:MM[:SS]' or '9:30 AM' / '9 AM' from older
+-- clients. Anything else does not parse. Local times use the session time zone.
+CREATE OR REPLACE FUNCTION pg_temp.event_date(value TEXT) RETURNS DATE AS $$
+DECLARE
+    v TEXT := btrim(value);
+BEGIN
+    IF v ~ '^\d{4}-\d{2}-\d{2}$' THEN
+        RETURN v::date;
+    ELSIF v ~ '^[A-Za-z]{3} \d{1,2}, \d{4}$' THEN
+        RETURN to_date(v, 'Mon DD, YYYY');
+    ELSIF v ~ '^[A-Za-z]+ \d{1,2}, \d{4}$' THEN
+        RETURN to_date(v, 'FMMonth DD, YYYY');
+    ELSIF v ~ '^\d{1,2}/\d{1,2}/\d{4}$' THEN
+        RETURN to_date(v, 'FMMM/FMDD/YYYY');
+    END IF;
+    RETURN NULL;
+EXCEPTION WHEN OTHERS THEN
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION pg_temp.event_time(value TEXT) RETURNS TIME AS $$
+DECLARE
+    v TEXT := upper(btrim(value));
+    parts TEXT[];
+    hour INT;
+BEGIN
+    IF v ~ '^\d{1,2}:\d{2}(:\d{2})?$' THEN
+        parts := string_to_array(v, ':');
+        -- make_time accepts 24:00, a 24-hour clock does not
+        IF parts[1]::int > 23 THEN
+            RETURN NULL;
+        END IF;
+        RETURN make_time(parts[1]::int, parts[2]::int, COALESCE(parts[3], '0')::int);
+    END IF;
+    parts := regexp_match(v, '^(\d{1,2})(?::(\d{2}))? ?(AM|PM)$');
+    IF parts IS NOT NULL THEN
+        hour := parts[1]::int;
+        IF hour < 1 OR hour > 12 THEN
+            RETURN NULL;
+        END IF;
+        RETURN make_time(hour % 12 + CASE WHEN parts[3] = 'PM' THEN 12 ELSE 0 END, COALESCE(parts[2], '0')::int, 0);
+    END IF;
+    RETURN NULL;
+EXCEPTION WHEN OTHERS THEN
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every row is recomputed, so rows filled by an earlier, narrower backfill are corrected too
+UPDATE events SET starts_at = (pg_temp.event_date(date) + COALESCE(pg_temp.event_time(time), TIME '00:00'))::timestamptz;
+
+-- An end time before the start runs past midnight, otherwise the duration in
+-- hours (only with a start time), otherwise the whole day
+UPDATE events SET ends_at = CASE
+        WHEN starts_at IS NULL THEN NULL
+        WHEN pg_temp.event_time(end_time) IS NOT NULL THEN
+            date_trunc('day', starts_at) + pg_temp.event_time(end_time)
+            + CASE WHEN date_trunc('day', starts_at) + pg_temp.event_time(end_time) <= starts_at THEN INTERVAL '1 day' ELSE INTERVAL '0' END
+        WHEN duration > 0 AND pg_temp.event_time(time) IS NOT NULL THEN starts_at + duration * INTERVAL '1 hour'
+        ELSE date_trunc('day', starts_at) + INTERVAL '1 day'
+    END;
+
+-- Upcoming-events listing: equality on status, range and order on starts_at,
+-- id as the keyset tie-breaker
+CREATE INDEX IF NOT EXISTS idx_events_status_starts_at ON events(status, starts_at, id);
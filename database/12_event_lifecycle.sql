@@ -0,0 +1,15 @@
+-- ============================================
+-- Migration: Event Lifecycle Transitions
+-- Actify Database
+-- ============================================
+
+-- The lifecycle job moves pending events that were never approved before
+-- they started to 'expired'. Allow that status (and 'rejected', which admin
+-- review already uses); NOT VALID skips re-checking existing rows.
+ALTER TABLE events DROP CONSTRAINT IF EXISTS events_status_check;
+ALTER TABLE events ADD CONSTRAINT events_status_check
+    CHECK (status IN ('active', 'pending', 'completed', 'cancelled', 'rejected', 'expired')) NOT VALID;
+
+-- Finds ended active events oldest first without scanning the status;
+-- pending events use idx_events_status_starts_at
+CREATE INDEX IF NOT EXISTS idx_events_status_ends_at ON events(status, ends_at);
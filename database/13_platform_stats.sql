@@ -0,0 +1,114 @@
+-- ============================================
+-- Migration: Platform Stats Counters
+-- Actify Database
+-- ============================================
+
+-- Counters behind /api/admin/stats, kept exact by triggers in the same
+-- transaction as every change to events or point distributions, so the
+-- dashboard reads a handful of rows instead of scanning both tables.
+--   events:<status>             events currently in that status
+--   distributions               registrations with points_awarded > 0
+--   points_distributed          sum of points_awarded over those
+--   unreviewed_distributions    those not yet reviewed by an admin
+--
+-- Each counter is striped over a few slots (picked by backend pid) so
+-- concurrent attendance runs, reviews and event changes do not all queue on
+-- one row until commit; readers sum the slots of each key.
+
+BEGIN;
+
+-- Derived data, rebuilt from the source tables below
+DROP TABLE IF EXISTS platform_stats;
+CREATE TABLE platform_stats (
+    stat_key VARCHAR(64) NOT NULL,
+    slot SMALLINT NOT NULL,
+    value BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_key, slot)
+);
+
+CREATE OR REPLACE FUNCTION bump_platform_stat(key VARCHAR, delta BIGINT) RETURNS VOID AS $$
+BEGIN
+    IF delta <> 0 THEN
+        INSERT INTO platform_stats (stat_key, slot, value) VALUES (key, pg_backend_pid() % 8, delta)
+        ON CONFLICT (stat_key, slot) DO UPDATE SET value = platform_stats.value + EXCLUDED.value;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION platform_stats_event_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_platform_stat('events:' || COALESCE(OLD.status, 'none'), -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM bump_platform_stat('events:' || COALESCE(NEW.status, 'none'), 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION platform_stats_registration_change() RETURNS TRIGGER AS $$
+DECLARE
+    old_count INT := 0;
+    old_points BIGINT := 0;
+    old_unreviewed INT := 0;
+    new_count INT := 0;
+    new_points BIGINT := 0;
+    new_unreviewed INT := 0;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND COALESCE(OLD.points_awarded, 0) > 0 THEN
+        old_count := 1;
+        old_points := OLD.points_awarded;
+        old_unreviewed := CASE WHEN OLD.admin_reviewed IS TRUE THEN 0 ELSE 1 END;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND COALESCE(NEW.points_awarded, 0) > 0 THEN
+        new_count := 1;
+        new_points := NEW.points_awarded;
+        new_unreviewed := CASE WHEN NEW.admin_reviewed IS TRUE THEN 0 ELSE 1 END;
+    END IF;
+    PERFORM bump_platform_stat('distributions', new_count - old_count);
+    PERFORM bump_platform_stat('points_distributed', new_points - old_points);
+    PERFORM bump_platform_stat('unreviewed_distributions', new_unreviewed - old_unreviewed);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Writers wait while the counters are seeded, so nothing is counted twice or missed
+LOCK TABLE events, event_registrations IN SHARE MODE;
+
+-- Hibernate writes every column on save, so updates only count when the value really changed
+DROP TRIGGER IF EXISTS platform_stats_events ON events;
+CREATE TRIGGER platform_stats_events
+    AFTER INSERT OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION platform_stats_event_change();
+
+DROP TRIGGER IF EXISTS platform_stats_events_status ON events;
+CREATE TRIGGER platform_stats_events_status
+    AFTER UPDATE OF status ON events
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION platform_stats_event_change();
+
+DROP TRIGGER IF EXISTS platform_stats_registrations ON event_registrations;
+CREATE TRIGGER platform_stats_registrations
+    AFTER INSERT OR DELETE ON event_registrations
+    FOR EACH ROW EXECUTE FUNCTION platform_stats_registration_change();
+
+-- Sign-ups, seat changes and attendance edits without points never reach the function
+DROP TRIGGER IF EXISTS platform_stats_registrations_points ON event_registrations;
+CREATE TRIGGER platform_stats_registrations_points
+    AFTER UPDATE OF points_awarded, admin_reviewed ON event_registrations
+    FOR EACH ROW
+    WHEN (OLD.points_awarded IS DISTINCT FROM NEW.points_awarded OR OLD.admin_reviewed IS DISTINCT FROM NEW.admin_reviewed)
+    EXECUTE FUNCTION platform_stats_registration_change();
+
+INSERT INTO platform_stats (stat_key, slot, value)
+SELECT 'events:' || COALESCE(status, 'none'), 0, COUNT(*) FROM events GROUP BY COALESCE(status, 'none');
+INSERT INTO platform_stats (stat_key, slot, value)
+SELECT 'distributions', 0, COUNT(*) FROM event_registrations WHERE points_awarded > 0
+UNION ALL
+SELECT 'points_distributed', 0, COALESCE(SUM(points_awarded), 0) FROM event_registrations WHERE points_awarded > 0
+UNION ALL
+SELECT 'unreviewed_distributions', 0, COUNT(*) FROM event_registrations WHERE points_awarded > 0 AND admin_reviewed IS NOT TRUE;
+
+COMMIT;
@@ -0,0 +1,11 @@
+-- ============================================
+-- Migration: Organization Points Rollup Index
+-- Actify Database
+-- ============================================
+
+-- /api/admin/points/by-organization groups point distributions by awarding
+-- organization. Covering only distributions (points_awarded > 0) and carrying
+-- the summed columns lets the grouped query run as an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_event_registrations_org_distributions
+    ON event_registrations(awarded_by_org_id) INCLUDE (points_awarded, admin_reviewed)
+    WHERE points_awarded > 0;
@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Point Distribution Feed Indexes
+-- Actify Database
+-- ============================================
+
+-- /api/admin/points/distributions pages newest-first on (points_awarded_at, id)
+-- and the export streams in the same order. Both only ever read distributions
+-- (points_awarded > 0), so partial indexes in that order let each page and the
+-- export walk the index instead of sorting the table.
+CREATE INDEX IF NOT EXISTS idx_event_registrations_distribution_feed
+    ON event_registrations(points_awarded_at DESC, id DESC)
+    WHERE points_awarded > 0;
+
+-- Same feed filtered to one awarding organization
+CREATE INDEX IF NOT EXISTS idx_event_registrations_org_distribution_feed
+    ON event_registrations(awarded_by_org_id, points_awarded_at DESC, id DESC)
+    WHERE points_awarded > 0;
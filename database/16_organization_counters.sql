@@ -0,0 +1,208 @@
+-- ============================================
+-- Migration: Organization Dashboard Counters
+-- Actify Database
+-- ============================================
+
+-- Counters behind /api/organizations/stats, kept exact by triggers in the
+-- same transaction as every change to events or registrations, so the
+-- dashboard reads one organizations row (plus a few slot rows) instead of
+-- all of its events.
+--   total_events, <status>_events   events the organization owns, by status
+--   volunteers_reached              registrations with status 'registered' on its events
+--   vp_distributed                  points awarded on its events
+-- Same definitions as the reconciliation job, which repairs any drift.
+--
+-- Event counts change rarely and live on the organizations row. Sign-ups,
+-- attendance and reviews are frequent and spread over many events, so their
+-- changes go to org_reach_slots, striped by backend pid: concurrent sign-ups
+-- for one organization's events do not queue on its row, and the
+-- registration path never locks the organization at all. The reach values
+-- are organizations.volunteers_reached / vp_distributed plus the sum of the
+-- organization's slots.
+
+BEGIN;
+
+ALTER TABLE organizations
+    ADD COLUMN IF NOT EXISTS pending_events INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS active_events INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS completed_events INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rejected_events INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS expired_events INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS org_reach_slots (
+    org_id BIGINT NOT NULL,
+    slot SMALLINT NOT NULL,
+    volunteers_reached INTEGER NOT NULL DEFAULT 0,
+    vp_distributed BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (org_id, slot)
+);
+
+CREATE OR REPLACE FUNCTION bump_org_event_counts(org BIGINT, event_status VARCHAR, delta INT) RETURNS VOID AS $$
+BEGIN
+    IF org IS NOT NULL AND delta <> 0 THEN
+        UPDATE organizations SET
+            total_events = COALESCE(total_events, 0) + delta,
+            pending_events = pending_events + CASE WHEN event_status = 'pending' THEN delta ELSE 0 END,
+            active_events = active_events + CASE WHEN event_status = 'active' THEN delta ELSE 0 END,
+            completed_events = completed_events + CASE WHEN event_status = 'completed' THEN delta ELSE 0 END,
+            rejected_events = rejected_events + CASE WHEN event_status = 'rejected' THEN delta ELSE 0 END,
+            expired_events = expired_events + CASE WHEN event_status = 'expired' THEN delta ELSE 0 END
+        WHERE id = org;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_org_reach(org BIGINT, reached_delta INT, vp_delta BIGINT) RETURNS VOID AS $$
+BEGIN
+    IF org IS NOT NULL AND (reached_delta <> 0 OR vp_delta <> 0) THEN
+        INSERT INTO org_reach_slots (org_id, slot, volunteers_reached, vp_distributed)
+        VALUES (org, pg_backend_pid() % 8, reached_delta, vp_delta)
+        ON CONFLICT (org_id, slot) DO UPDATE SET
+            volunteers_reached = org_reach_slots.volunteers_reached + EXCLUDED.volunteers_reached,
+            vp_distributed = org_reach_slots.vp_distributed + EXCLUDED.vp_distributed;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Reach and points of an event's current registrations
+CREATE OR REPLACE FUNCTION org_event_reach(target_event BIGINT, OUT reached INT, OUT vp BIGINT) AS $$
+    SELECT (COUNT(*) FILTER (WHERE status = 'registered'))::int, COALESCE(SUM(points_awarded), 0)::bigint
+    FROM event_registrations WHERE event_id = target_event;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION org_counters_event_change() RETURNS TRIGGER AS $$
+DECLARE
+    reach RECORD;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_org_event_counts(OLD.organizer_id, OLD.status, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM bump_org_event_counts(NEW.organizer_id, NEW.status, 1);
+    END IF;
+    -- Registrations count towards the event's organizer and move with the event
+    IF TG_OP = 'UPDATE' AND OLD.organizer_id IS DISTINCT FROM NEW.organizer_id THEN
+        SELECT * INTO reach FROM org_event_reach(OLD.id);
+        PERFORM bump_org_reach(OLD.organizer_id, -reach.reached, -reach.vp);
+        PERFORM bump_org_reach(NEW.organizer_id, reach.reached, reach.vp);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Runs before the row goes: the ON DELETE CASCADE on event_registrations fires
+-- ahead of any AFTER trigger, and the cascaded deletes no longer find the event
+-- (see below), so this is the only point where the registrations are still
+-- there to be subtracted
+CREATE OR REPLACE FUNCTION org_counters_event_delete() RETURNS TRIGGER AS $$
+DECLARE
+    reach RECORD;
+BEGIN
+    SELECT * INTO reach FROM org_event_reach(OLD.id);
+    PERFORM bump_org_reach(OLD.organizer_id, -reach.reached, -reach.vp);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A registration whose event is gone was already subtracted with the event
+CREATE OR REPLACE FUNCTION org_counters_registration_change() RETURNS TRIGGER AS $$
+DECLARE
+    old_org BIGINT;
+    new_org BIGINT;
+    old_reached INT := 0;
+    old_vp BIGINT := 0;
+    new_reached INT := 0;
+    new_vp BIGINT := 0;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT organizer_id INTO old_org FROM events WHERE id = OLD.event_id;
+        old_reached := CASE WHEN OLD.status = 'registered' THEN 1 ELSE 0 END;
+        old_vp := COALESCE(OLD.points_awarded, 0);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT organizer_id INTO new_org FROM events WHERE id = NEW.event_id;
+        new_reached := CASE WHEN NEW.status = 'registered' THEN 1 ELSE 0 END;
+        new_vp := COALESCE(NEW.points_awarded, 0);
+    END IF;
+    IF TG_OP = 'UPDATE' AND old_org IS NOT DISTINCT FROM new_org THEN
+        PERFORM bump_org_reach(new_org, new_reached - old_reached, new_vp - old_vp);
+    ELSE
+        PERFORM bump_org_reach(old_org, -old_reached, -old_vp);
+        PERFORM bump_org_reach(new_org, new_reached, new_vp);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Writers wait while the counters are seeded, so nothing is counted twice or missed
+LOCK TABLE organizations, events, event_registrations IN SHARE MODE;
+
+-- Hibernate writes every column on save, so updates only count when the value really changed
+DROP TRIGGER IF EXISTS org_counters_events ON events;
+CREATE TRIGGER org_counters_events
+    AFTER INSERT OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION org_counters_event_change();
+
+DROP TRIGGER IF EXISTS org_counters_events_update ON events;
+CREATE TRIGGER org_counters_events_update
+    AFTER UPDATE OF status, organizer_id ON events
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status OR OLD.organizer_id IS DISTINCT FROM NEW.organizer_id)
+    EXECUTE FUNCTION org_counters_event_change();
+
+DROP TRIGGER IF EXISTS org_counters_events_delete ON events;
+CREATE TRIGGER org_counters_events_delete
+    BEFORE DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION org_counters_event_delete();
+
+DROP TRIGGER IF EXISTS org_counters_registrations ON event_registrations;
+CREATE TRIGGER org_counters_registrations
+    AFTER INSERT OR DELETE ON event_registrations
+    FOR EACH ROW EXECUTE FUNCTION org_counters_registration_change();
+
+-- Attendance marks, reviews and cancellations; confirmations and feedback never reach the function
+DROP TRIGGER IF EXISTS org_counters_registrations_update ON event_registrations;
+CREATE TRIGGER org_counters_registrations_update
+    AFTER UPDATE OF status, points_awarded, event_id ON event_registrations
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status OR OLD.points_awarded IS DISTINCT FROM NEW.points_awarded
+          OR OLD.event_id IS DISTINCT FROM NEW.event_id)
+    EXECUTE FUNCTION org_counters_registration_change();
+
+-- Seeded totals go on the organizations row; the slots start empty
+DELETE FROM org_reach_slots;
+UPDATE organizations o SET
+    total_events = s.total,
+    pending_events = s.pending,
+    active_events = s.active,
+    completed_events = s.completed,
+    rejected_events = s.rejected,
+    expired_events = s.expired,
+    volunteers_reached = s.reached,
+    vp_distributed = s.vp
+FROM (
+    SELECT org.id,
+           COALESCE(ev.total, 0) AS total, COALESCE(ev.pending, 0) AS pending,
+           COALESCE(ev.active, 0) AS active, COALESCE(ev.completed, 0) AS completed,
+           COALESCE(ev.rejected, 0) AS rejected, COALESCE(ev.expired, 0) AS expired,
+           COALESCE(rg.reached, 0) AS reached, COALESCE(rg.vp, 0) AS vp
+    FROM organizations org
+    LEFT JOIN (
+        SELECT organizer_id, COUNT(*) AS total,
+               COUNT(*) FILTER (WHERE status = 'pending') AS pending,
+               COUNT(*) FILTER (WHERE status = 'active') AS active,
+               COUNT(*) FILTER (WHERE status = 'completed') AS completed,
+               COUNT(*) FILTER (WHERE status = 'rejected') AS rejected,
+               COUNT(*) FILTER (WHERE status = 'expired') AS expired
+        FROM events GROUP BY organizer_id
+    ) ev ON ev.organizer_id = org.id
+    LEFT JOIN (
+        SELECT e.organizer_id, COUNT(*) FILTER (WHERE r.status = 'registered') AS reached,
+               SUM(COALESCE(r.points_awarded, 0)) AS vp
+        FROM events e JOIN event_registrations r ON r.event_id = e.id
+        GROUP BY e.organizer_id
+    ) rg ON rg.organizer_id = org.id
+) s
+WHERE s.id = o.id;
+
+COMMIT;
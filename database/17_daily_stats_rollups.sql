@@ -0,0 +1,160 @@
+-- ============================================
+-- Migration: Daily Stats Rollups
+-- Actify Database
+-- ============================================
+
+-- Per-day series behind the organization and admin activity charts, kept
+-- current by a trigger on event_registrations so a year of data is a few
+-- hundred rows instead of a scan of the registrations table.
+--   registrations    registrations by day of registration_date
+--   attended         attended/partial registrations with points, by day of points_awarded_at
+--   points_awarded   points awarded, by day of points_awarded_at
+-- Registrations belong to the organizer of their event. Deleting an event
+-- leaves its history in both rollups.
+--
+-- Both series are striped over a few slots per day (picked by backend pid)
+-- so concurrent sign-ups do not all queue on the platform's or one
+-- organization's row for today; readers sum the slots of each day.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS org_daily_stats (
+    org_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    slot SMALLINT NOT NULL,
+    registrations INTEGER NOT NULL DEFAULT 0,
+    attended INTEGER NOT NULL DEFAULT 0,
+    points_awarded BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (org_id, day, slot)
+);
+
+CREATE TABLE IF NOT EXISTS platform_daily_stats (
+    day DATE NOT NULL,
+    slot SMALLINT NOT NULL,
+    registrations INTEGER NOT NULL DEFAULT 0,
+    attended INTEGER NOT NULL DEFAULT 0,
+    points_awarded BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, slot)
+);
+
+CREATE OR REPLACE FUNCTION bump_daily_stats(org BIGINT, stat_day DATE, registrations_delta INT,
+                                            attended_delta INT, points_delta BIGINT) RETURNS VOID AS $$
+BEGIN
+    IF stat_day IS NULL OR (registrations_delta = 0 AND attended_delta = 0 AND points_delta = 0) THEN
+        RETURN;
+    END IF;
+    INSERT INTO platform_daily_stats (day, slot, registrations, attended, points_awarded)
+    VALUES (stat_day, pg_backend_pid() % 8, registrations_delta, attended_delta, points_delta)
+    ON CONFLICT (day, slot) DO UPDATE SET
+        registrations = platform_daily_stats.registrations + EXCLUDED.registrations,
+        attended = platform_daily_stats.attended + EXCLUDED.attended,
+        points_awarded = platform_daily_stats.points_awarded + EXCLUDED.points_awarded;
+    IF org IS NOT NULL THEN
+        INSERT INTO org_daily_stats (org_id, day, slot, registrations, attended, points_awarded)
+        VALUES (org, stat_day, pg_backend_pid() % 8, registrations_delta, attended_delta, points_delta)
+        ON CONFLICT (org_id, day, slot) DO UPDATE SET
+            registrations = org_daily_stats.registrations + EXCLUDED.registrations,
+            attended = org_daily_stats.attended + EXCLUDED.attended,
+            points_awarded = org_daily_stats.points_awarded + EXCLUDED.points_awarded;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION daily_stats_registration_change() RETURNS TRIGGER AS $$
+DECLARE
+    old_org BIGINT;
+    new_org BIGINT;
+    old_attended INT := 0;
+    new_attended INT := 0;
+    old_points BIGINT := 0;
+    new_points BIGINT := 0;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT organizer_id INTO old_org FROM events WHERE id = OLD.event_id;
+        -- Removed together with its event (ON DELETE CASCADE): keep the history
+        IF TG_OP = 'DELETE' AND NOT FOUND THEN
+            RETURN NULL;
+        END IF;
+        old_points := COALESCE(OLD.points_awarded, 0);
+        old_attended := CASE WHEN OLD.attendance_status IN ('attended', 'partial') AND old_points > 0 THEN 1 ELSE 0 END;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT organizer_id INTO new_org FROM events WHERE id = NEW.event_id;
+        new_points := COALESCE(NEW.points_awarded, 0);
+        new_attended := CASE WHEN NEW.attendance_status IN ('attended', 'partial') AND new_points > 0 THEN 1 ELSE 0 END;
+    END IF;
+
+    -- Attendance marks and reviews only move the award day's numbers
+    IF TG_OP = 'UPDATE' AND old_org IS NOT DISTINCT FROM new_org THEN
+        IF OLD.registration_date::date IS DISTINCT FROM NEW.registration_date::date THEN
+            PERFORM bump_daily_stats(old_org, OLD.registration_date::date, -1, 0, 0);
+            PERFORM bump_daily_stats(new_org, NEW.registration_date::date, 1, 0, 0);
+        END IF;
+        IF OLD.points_awarded_at::date IS NOT DISTINCT FROM NEW.points_awarded_at::date THEN
+            PERFORM bump_daily_stats(new_org, NEW.points_awarded_at::date, 0, new_attended - old_attended, new_points - old_points);
+        ELSE
+            PERFORM bump_daily_stats(old_org, OLD.points_awarded_at::date, 0, -old_attended, -old_points);
+            PERFORM bump_daily_stats(new_org, NEW.points_awarded_at::date, 0, new_attended, new_points);
+        END IF;
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_daily_stats(old_org, OLD.registration_date::date, -1, 0, 0);
+        PERFORM bump_daily_stats(old_org, OLD.points_awarded_at::date, 0, -old_attended, -old_points);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM bump_daily_stats(new_org, NEW.registration_date::date, 1, 0, 0);
+        PERFORM bump_daily_stats(new_org, NEW.points_awarded_at::date, 0, new_attended, new_points);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Writers wait while the rollups are seeded, so nothing is counted twice or missed
+LOCK TABLE events, event_registrations IN SHARE MODE;
+
+DROP TRIGGER IF EXISTS daily_stats_registrations ON event_registrations;
+CREATE TRIGGER daily_stats_registrations
+    AFTER INSERT OR DELETE ON event_registrations
+    FOR EACH ROW EXECUTE FUNCTION daily_stats_registration_change();
+
+-- Hibernate writes every column on save, so updates only count when a bucketed value really changed
+DROP TRIGGER IF EXISTS daily_stats_registrations_update ON event_registrations;
+CREATE TRIGGER daily_stats_registrations_update
+    AFTER UPDATE OF registration_date, points_awarded, points_awarded_at, attendance_status, event_id ON event_registrations
+    FOR EACH ROW
+    WHEN (OLD.registration_date IS DISTINCT FROM NEW.registration_date
+          OR OLD.points_awarded IS DISTINCT FROM NEW.points_awarded
+          OR OLD.points_awarded_at IS DISTINCT FROM NEW.points_awarded_at
+          OR OLD.attendance_status IS DISTINCT FROM NEW.attendance_status
+          OR OLD.event_id IS DISTINCT FROM NEW.event_id)
+    EXECUTE FUNCTION daily_stats_registration_change();
+
+DELETE FROM org_daily_stats;
+DELETE FROM platform_daily_stats;
+
+WITH activity AS (
+    SELECT e.organizer_id AS org_id, r.registration_date::date AS day,
+           1 AS registrations, 0 AS attended, 0 AS points_awarded
+    FROM event_registrations r LEFT JOIN events e ON e.id = r.event_id
+    WHERE r.registration_date IS NOT NULL
+    UNION ALL
+    SELECT e.organizer_id, r.points_awarded_at::date,
+           0, CASE WHEN r.attendance_status IN ('attended', 'partial') AND r.points_awarded > 0 THEN 1 ELSE 0 END,
+           COALESCE(r.points_awarded, 0)
+    FROM event_registrations r LEFT JOIN events e ON e.id = r.event_id
+    WHERE r.points_awarded_at IS NOT NULL
+),
+org_rows AS (
+    INSERT INTO org_daily_stats (org_id, day, slot, registrations, attended, points_awarded)
+    SELECT org_id, day, 0, SUM(registrations), SUM(attended), SUM(points_awarded)
+    FROM activity WHERE org_id IS NOT NULL
+    GROUP BY org_id, day
+)
+INSERT INTO platform_daily_stats (day, slot, registrations, attended, points_awarded)
+SELECT day, 0, SUM(registrations), SUM(attended), SUM(points_awarded)
+FROM activity
+GROUP BY day;
+
+COMMIT;